@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jdbc.repository.config.EnableJdbcRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.ulisesbocchio.jasyptspringboot.annotation.EnableEncryptableProperties;
 
@@ -14,6 +15,7 @@ import com.ulisesbocchio.jasyptspringboot.annotation.EnableEncryptableProperties
 @ComponentScan({ "com.bookstore" })
 @EnableJdbcRepositories(basePackages = "com.bookstore.data.repository")
 @EnableEncryptableProperties
+@EnableScheduling
 public class BookStoreApplication {
 	/**
 	 * Default constructor for main application class
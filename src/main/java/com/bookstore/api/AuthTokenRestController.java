@@ -0,0 +1,98 @@
+package com.bookstore.api;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bookstore.business.BookStoreUser;
+import com.bookstore.configs.ApiTokenService;
+import com.bookstore.configs.LoginThrottle;
+import com.bookstore.models.ApiTokenModel;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Rest API controller to exchange user credentials for a bearer token
+ */
+@RestController
+@RequestMapping("/api/auth")
+@Tag(name="auth", description="Bearer tokens for the book service API")
+public class AuthTokenRestController {
+
+	private static final Logger logger = LogManager.getLogger(AuthTokenRestController.class);
+
+	@Autowired
+	private AuthenticationManager authenticationManager;
+
+	@Autowired
+	private ApiTokenService tokenService;
+
+	@Autowired
+	private LoginThrottle loginThrottle;
+
+	/**
+	 * Create a default RestController for tokens
+	 */
+	public AuthTokenRestController() {
+
+	}
+
+	/**
+	 * POST API to get a bearer token for the book service API
+	 * 
+	 * @param username user name
+	 * @param password password
+	 * @param request request, for the client address
+	 * @return token or HTTP status in case of error
+	 */
+	@PostMapping(path = "token", produces = { MediaType.APPLICATION_JSON_VALUE })
+	@Operation(summary="Get an API token", description = "Exchange user name and password for a signed bearer token", responses = {
+            @ApiResponse(responseCode = "200", description = "Token issued", 
+            		content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ApiTokenModel.class)
+                    )),
+            @ApiResponse(responseCode = "401", description = "Invalid user name or password", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "429", description = "Too many attempts", content = { @Content(schema = @Schema()) })
+            })
+	public ResponseEntity<?> getToken(
+			@Parameter(name="username", required = true) @RequestParam String username,
+			@Parameter(name="password", required = true) @RequestParam String password,
+			HttpServletRequest request) {
+		// Same limits and client address as the login form, checked before the password is hashed
+		if (!loginThrottle.tryAcquire(username, request.getRemoteAddr())) {
+			return new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS);
+		}
+
+		try {
+			var authentication = authenticationManager.authenticate(
+					UsernamePasswordAuthenticationToken.unauthenticated(username, password));
+			if (!(authentication.getPrincipal() instanceof BookStoreUser user)) {
+				return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+			}
+
+			var token = tokenService.issue(user.getUserId(), user.getUsername());
+			logger.info("API token issued for user: {}", user.getUsername());
+			return new ResponseEntity<>(new ApiTokenModel(token, tokenService.getTimeToLive().toSeconds()), HttpStatus.OK);
+		} catch (AuthenticationException ex) {
+			logger.warn("API token refused for user: {}", username);
+			return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+		}
+	}
+}
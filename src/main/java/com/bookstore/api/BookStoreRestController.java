@@ -1,23 +1,36 @@
 package com.bookstore.api;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.bookstore.business.BookImportInterface;
 import com.bookstore.business.BookStoreInterface;
+import com.bookstore.business.BookStoreUser;
 import com.bookstore.controllers.ControllerBase;
 import com.bookstore.models.BookModel;
+import com.bookstore.models.BookPageModel;
+import com.bookstore.models.ImportResultModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
@@ -37,9 +50,17 @@ public class BookStoreRestController extends ControllerBase {
 	private static final Logger logger = LogManager.getLogger(BookStoreRestController.class);
 
 
+	private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
 	@Autowired
 	private BookStoreInterface bookService;
 
+	@Autowired
+	private BookImportInterface importService;
+
+	@Autowired
+	private ObjectMapper objectMapper; // same JSON shape as the other endpoints
+
 	/**
 	 * Create a default RestController for BookStore
 	 */
@@ -48,40 +69,72 @@ public class BookStoreRestController extends ControllerBase {
 	}
 	
 	/**
-	 * GET API for all books
+	 * API calls are authorized by the bearer token of the request, not by a session
+	 */
+	@Override
+	protected boolean hasValidUserSession() {
+		return apiUser() != null;
+	}
+
+	/**
+	 * Get the user the bearer token was issued to
+	 * @return user with the id from the token, or null
+	 */
+	private BookStoreUser apiUser() {
+		var authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()
+				|| authentication instanceof AnonymousAuthenticationToken) {
+			return null;
+		}
+		return authentication.getPrincipal() instanceof BookStoreUser user ? user : null;
+	}
+	
+	/**
+	 * GET API for all books, one page at a time
 	 * 
-	 * @return book model response or forbidden
+	 * @param pageSize number of books per page
+	 * @param token continuation token from the previous page
+	 * @return book page response or forbidden
 	 */
 	@GetMapping(path = "allbooks", produces = { MediaType.APPLICATION_JSON_VALUE })
-	@Operation(summary="Get list of all books", description = "Get a list of available books", responses = {
+	@Operation(summary="Get list of all books", description = "Get a page of available books ordered by id. Pass nextToken of a page as token to get the following page", responses = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved books", 
             		content = @Content(
                             mediaType = "application/json",
-                            array = @ArraySchema(schema = @Schema(implementation = BookModel.class))
+                            schema = @Schema(implementation = BookPageModel.class)
                     )),
+            @ApiResponse(responseCode = "400", description = "The continuation token is not valid", content = { @Content(schema = @Schema()) }),
             @ApiResponse(responseCode = "404", description = "The book list is empty", content = { @Content(schema = @Schema()) }),
             @ApiResponse(responseCode = "403", description = "Accessing the resource is not authorized", content = { @Content(schema = @Schema()) }),
             @ApiResponse(responseCode = "500", description = "Error while getting resource", content = { @Content(schema = @Schema()) })
             })
-	public ResponseEntity<?> getAllBooks() {
+	public ResponseEntity<?> getAllBooks(
+			@Parameter(name="pageSize", description = "Number of books per page. At most 100.", example = "20")
+			@RequestParam(defaultValue = "20") int pageSize,
+			@Parameter(name="token", description = "Continuation token returned as nextToken by the previous page.")
+			@RequestParam(required = false) String token) {
 
 		logger.debug("Entering getAllBooks()");
 
 		// If the user session is valid return values
 		if (hasValidUserSession()) {
-			logger.info("Valid user session detected.");
+			logger.debug("Valid user session detected.");
 			try {
-				var books = bookService.getAllBooks();
-				if (!books.isEmpty()) {
-					logger.info("Books retrieved successfully. Total books: {}", books.size());
+				var page = bookService.getAllBooks(pageSize, token);
+				if (!page.getBooks().isEmpty()) {
+					logger.debug("Books retrieved successfully. Books in page: {}", page.getBooks().size());
 
-					// If we got a list send it
-					return new ResponseEntity<>(books, HttpStatus.OK);
+					// If we got a page send it
+					return new ResponseEntity<>(page, HttpStatus.OK);
 				} else {
 					// If not send not found
 					logger.warn("No books found in the database.");
 					return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 				}
+			} catch (IllegalArgumentException ex) {
+				// Token could not be read
+				logger.warn("Bad continuation token: {}", token);
+				return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 			} catch (Exception ex) {
 				// In case of error send internal server error
 				logger.error("Error occurred while fetching all books: {}", ex.getMessage(), ex);
@@ -94,6 +147,110 @@ public class BookStoreRestController extends ControllerBase {
 		}
 	}
 	
+	/**
+	 * GET API to export the whole catalog as newline delimited JSON. Books are written to
+	 * the response as they are read from DB, one BookModel JSON object per line.
+	 * 
+	 * @return streaming response or forbidden
+	 */
+	@GetMapping(path = "export", produces = { NDJSON_MEDIA_TYPE })
+	@Operation(summary="Export all books", description = "Stream every book as newline delimited JSON, one book per line, ordered by id", responses = {
+            @ApiResponse(responseCode = "200", description = "Streaming books", 
+            		content = @Content(
+                            mediaType = NDJSON_MEDIA_TYPE,
+                            schema = @Schema(implementation = BookModel.class)
+                    )),
+            @ApiResponse(responseCode = "403", description = "Accessing the resource is not authorized", content = { @Content(schema = @Schema()) })
+            })
+	public ResponseEntity<StreamingResponseBody> exportBooks() {
+		logger.debug("Entering exportBooks()");
+
+		// If the user session is valid stream values
+		if (!hasValidUserSession()) {
+			logger.warn("Invalid user session. Access forbidden.");
+			// Return forbidden code if not in valid session
+			return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+		}
+
+		var writer = objectMapper.writerFor(BookModel.class);
+		StreamingResponseBody body = out -> {
+			try {
+				bookService.exportAllBooks(book -> {
+					try {
+						out.write(writer.writeValueAsBytes(book));
+						out.write('\n');
+					} catch (IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+				});
+				out.flush();
+			} catch (UncheckedIOException ex) {
+				// Client went away or write failed. Stop reading from DB
+				logger.error("Error occurred while exporting books: {}", ex.getMessage());
+				throw ex.getCause();
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE)).body(body);
+	}
+
+	/**
+	 * POST API to import many books for the current user from a CSV or NDJSON file.
+	 * CSV needs a header row with name, author, publishDate, description, price and quantity columns.
+	 * 
+	 * @param file uploaded file
+	 * @param format CSV or NDJSON, taken from the file name when missing
+	 * @return import result or HTTP status in case of error
+	 */
+	@PostMapping(path = "import", consumes = { MediaType.MULTIPART_FORM_DATA_VALUE }, produces = { MediaType.APPLICATION_JSON_VALUE })
+	@Operation(summary="Bulk import books", description = "Import books listed by the current user from a CSV or NDJSON file", responses = {
+            @ApiResponse(responseCode = "200", description = "Import finished. Rejected rows are listed in errors", 
+            		content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ImportResultModel.class)
+                    )),
+            @ApiResponse(responseCode = "400", description = "The format is not supported", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "403", description = "Accessing the resource is not authorized", content = { @Content(schema = @Schema()) }),
+            @ApiResponse(responseCode = "500", description = "Error while reading the file", content = { @Content(schema = @Schema()) })
+            })
+	public ResponseEntity<?> importBooks(
+			@Parameter(name="file", description = "CSV or NDJSON file with books", required = true)
+			@RequestParam("file") MultipartFile file,
+			@Parameter(name="format", description = "CSV or NDJSON", example = "CSV")
+			@RequestParam(required = false) String format) {
+		logger.debug("Entering importBooks()");
+
+		// If the user session is valid import values
+		if (!hasValidUserSession()) {
+			logger.warn("Invalid user session. Access forbidden.");
+			// Return forbidden code if not in valid session
+			return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+		}
+
+		BookImportInterface.Format importFormat;
+		try {
+			if (format != null) {
+				importFormat = BookImportInterface.Format.valueOf(format.toUpperCase());
+			} else {
+				var fileName = file.getOriginalFilename();
+				importFormat = fileName != null && fileName.toLowerCase().endsWith(".csv") ? BookImportInterface.Format.CSV
+						: BookImportInterface.Format.NDJSON;
+			}
+		} catch (IllegalArgumentException ex) {
+			logger.warn("Unsupported import format: {}", format);
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+
+		try (var input = file.getInputStream()) {
+			var result = importService.importBooks(input, importFormat, apiUser().getUserId());
+			logger.debug("Import finished. Imported: {}, failed: {}", result.getRowsImported(), result.getRowsFailed());
+			return new ResponseEntity<>(result, HttpStatus.OK);
+		} catch (Exception ex) {
+			// In case of error send internal server error
+			logger.error("Error occurred while importing books: {}", ex.getMessage(), ex);
+			return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+	}
+
 	/**
 	 * Get the book with specific id from the store
 	 * @param id book id
@@ -115,11 +272,11 @@ public class BookStoreRestController extends ControllerBase {
 		logger.debug("Entering getBooks() with ID: {}", id);
 		// If the user session is valid return values
 		if (hasValidUserSession()) {
-			logger.info("Valid user session detected.");
+			logger.debug("Valid user session detected.");
 			try {
-				var book = bookService.getBookForId(id, loggedInSession.getUserName());
+				var book = bookService.getBookForId(id, apiUser().getUsername());
 				if (book != null) {
-					logger.info("Book retrieved successfully for ID: {}", id);
+					logger.debug("Book retrieved successfully for ID: {}", id);
 					// If we got a list send it
 					return new ResponseEntity<>(book, HttpStatus.OK);
 				} else {
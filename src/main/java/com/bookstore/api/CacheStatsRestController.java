@@ -0,0 +1,78 @@
+package com.bookstore.api;
+
+import java.util.ArrayList;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bookstore.controllers.ControllerBase;
+import com.bookstore.models.CacheStatsModel;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Rest API controller to read data cache statistics
+ */
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name="cache", description="Statistics of the data caches")
+public class CacheStatsRestController extends ControllerBase {
+
+	private static final Logger logger = LogManager.getLogger(CacheStatsRestController.class);
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	/**
+	 * Create a default RestController for cache statistics
+	 */
+	public CacheStatsRestController() {
+
+	}
+
+	/**
+	 * GET API for cache statistics
+	 * 
+	 * @return statistics per cache or forbidden
+	 */
+	@GetMapping(path = "stats", produces = { MediaType.APPLICATION_JSON_VALUE })
+	@Operation(summary="Get cache statistics", description = "Get hit, miss and eviction counts of every data cache", responses = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics", 
+            		content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CacheStatsModel.class))
+                    )),
+            @ApiResponse(responseCode = "403", description = "Accessing the resource is not authorized", content = { @Content(schema = @Schema()) })
+            })
+	public ResponseEntity<?> getCacheStats() {
+		if (!hasValidUserSession()) {
+			logger.warn("Invalid user session. Access forbidden.");
+			return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+		}
+
+		var stats = new ArrayList<CacheStatsModel>();
+		for (var name : cacheManager.getCacheNames()) {
+			// Only Caffeine caches keep statistics. A disabled cache has none
+			if (cacheManager.getCache(name).getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> cache) {
+				var cacheStats = cache.stats();
+				stats.add(new CacheStatsModel(name, cache.estimatedSize(), cacheStats.hitCount(), cacheStats.missCount(),
+						cacheStats.evictionCount(), cacheStats.hitRate()));
+			}
+		}
+		logger.debug("Cache statistics retrieved for {} caches", stats.size());
+		return new ResponseEntity<>(stats, HttpStatus.OK);
+	}
+}
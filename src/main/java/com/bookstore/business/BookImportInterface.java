@@ -0,0 +1,36 @@
+package com.bookstore.business;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.bookstore.models.ImportResultModel;
+
+/**
+ * Bulk book import business interface
+ */
+public interface BookImportInterface {
+
+	/**
+	 * Supported import file formats
+	 */
+	public enum Format {
+		/**
+		 * Comma separated values with a header row
+		 */
+		CSV,
+		/**
+		 * One BookModel JSON object per line
+		 */
+		NDJSON
+	}
+
+	/**
+	 * Import books from a file. Rows are parsed and inserted incrementally, so the file is never held in memory.
+	 * @param input file contents
+	 * @param format file format
+	 * @param owner id of the user listing the books
+	 * @return import result with per row errors
+	 * @throws IOException error reading the input
+	 */
+	public ImportResultModel importBooks(InputStream input, Format format, long owner) throws IOException;
+}
@@ -0,0 +1,267 @@
+package com.bookstore.business;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.bookstore.data.BookDataService;
+import com.bookstore.data.entity.BookEntity;
+import com.bookstore.models.BookModel;
+import com.bookstore.models.ImportResultModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validator;
+
+/**
+ * Bulk book import service. Reads CSV or NDJSON line by line, validates each row against
+ * the BookModel constraints and inserts valid rows in JDBC batches.
+ */
+@Service
+public class BookImportService implements BookImportInterface {
+
+	private static final Logger logger = LogManager.getLogger(BookImportService.class);
+
+	private static final int MAX_REPORTED_ERRORS = 100; // Keep the result small for bad files
+
+	@Autowired
+	private BookDataService bookService;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${bookstore.import.batch-size:1000}")
+	private int batchSize;
+
+	/**
+	 * Create a book import service
+	 */
+	public BookImportService() {
+
+	}
+
+	@Override
+	public ImportResultModel importBooks(InputStream input, Format format, long owner) throws IOException {
+		logger.debug("Importing {} books for user id: {}", format, owner);
+		var result = new ImportResultModel();
+
+		var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+		var batch = new ArrayList<BookEntity>(batchSize);
+		Map<String, Integer> columns = null;
+		long lineNumber = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.isBlank()) {
+				continue;
+			}
+
+			// First CSV line names the columns
+			if (format == Format.CSV && columns == null) {
+				columns = readHeader(line);
+				continue;
+			}
+
+			result.setRowsRead(result.getRowsRead() + 1);
+			try {
+				var book = format == Format.CSV ? parseCsv(line, columns) : parseJson(line);
+				var violations = validator.validate(book);
+				if (!violations.isEmpty()) {
+					var messages = new ArrayList<String>();
+					violations.forEach(v -> messages.add(v.getMessage()));
+					addError(result, lineNumber, String.join("; ", messages));
+					continue;
+				}
+
+				batch.add(new BookEntity(0, null, book.getName(), book.getAuthor(), book.getPublishDate(),
+						book.getDescription(), book.getPrice(), book.getQuantity(), owner));
+			} catch (Exception ex) {
+				addError(result, lineNumber, ex.getMessage());
+				continue;
+			}
+
+			if (batch.size() >= batchSize) {
+				flush(batch, result);
+			}
+		}
+		flush(batch, result);
+
+		logger.debug("Import finished for user id: {}. Read: {}, imported: {}, failed: {}", owner, result.getRowsRead(),
+				result.getRowsImported(), result.getRowsFailed());
+		return result;
+	}
+
+	/**
+	 * Insert the pending rows as one JDBC batch and report progress
+	 * 
+	 * @param batch pending rows, cleared afterwards
+	 * @param result result to update
+	 */
+	private void flush(List<BookEntity> batch, ImportResultModel result) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		var inserted = bookService.createBatch(batch);
+		if (inserted < batch.size()) {
+			result.setRowsFailed(result.getRowsFailed() + batch.size() - inserted);
+			addError(result, -1, String.format("Batch insert failed for %d rows", batch.size() - inserted));
+		}
+		result.setRowsImported(result.getRowsImported() + inserted);
+		logger.debug("Import progress: {} rows read, {} imported", result.getRowsRead(), result.getRowsImported());
+		batch.clear();
+	}
+
+	/**
+	 * Record a failed row. Only the first errors keep their message.
+	 * 
+	 * @param result result to update
+	 * @param lineNumber line in the file or -1 for batch errors
+	 * @param message error
+	 */
+	private void addError(ImportResultModel result, long lineNumber, String message) {
+		if (lineNumber > 0) {
+			result.setRowsFailed(result.getRowsFailed() + 1);
+		}
+		if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+			result.getErrors().add(lineNumber > 0 ? String.format("Line %d: %s", lineNumber, message) : message);
+		}
+	}
+
+	/**
+	 * Read CSV header to column positions
+	 * 
+	 * @param line header line
+	 * @return column name to index
+	 */
+	private Map<String, Integer> readHeader(String line) {
+		var columns = new HashMap<String, Integer>();
+		var names = splitCsv(line);
+		for (int i = 0; i < names.size(); i++) {
+			columns.put(names.get(i).trim().toLowerCase(), i);
+		}
+		return columns;
+	}
+
+	/**
+	 * Create a book model from a CSV line
+	 * 
+	 * @param line line
+	 * @param columns header columns
+	 * @return model
+	 * @throws ParseException bad date
+	 */
+	private BookModel parseCsv(String line, Map<String, Integer> columns) throws ParseException {
+		var values = splitCsv(line);
+		var book = new BookModel();
+		book.setName(column(values, columns, "name"));
+		book.setAuthor(column(values, columns, "author"));
+		book.setDescription(column(values, columns, "description"));
+
+		var date = column(values, columns, "publishdate");
+		var dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+		dateFormat.setLenient(false);
+		book.setPublishDate(date == null ? null : dateFormat.parse(date));
+
+		// Price and quantity are primitives, so a missing value must be rejected here, not by the validator
+		book.setPrice(Float.parseFloat(required(column(values, columns, "price"), "Price")));
+		book.setQuantity(Integer.parseInt(required(column(values, columns, "quantity"), "Quantity")));
+		return book;
+	}
+
+	/**
+	 * Create a book model from an NDJSON line
+	 * 
+	 * @param line line
+	 * @return model
+	 * @throws IOException bad JSON
+	 */
+	private BookModel parseJson(String line) throws IOException {
+		var node = objectMapper.readTree(line);
+		if (node == null || !node.isObject()) {
+			throw new IllegalArgumentException("Line is not a JSON object");
+		}
+		required(node.hasNonNull("price") ? "" : null, "Price");
+		required(node.hasNonNull("quantity") ? "" : null, "Quantity");
+		return objectMapper.treeToValue(node, BookModel.class);
+	}
+
+	/**
+	 * Reject a row without a required value
+	 * 
+	 * @param value value or null if missing
+	 * @param field field name for the error
+	 * @return value
+	 */
+	private String required(String value, String field) {
+		if (value == null) {
+			throw new IllegalArgumentException(field + " is a required field");
+		}
+		return value;
+	}
+
+	/**
+	 * Get a column value by header name
+	 * 
+	 * @param values row values
+	 * @param columns header columns
+	 * @param name column name
+	 * @return value or null if missing
+	 */
+	private String column(List<String> values, Map<String, Integer> columns, String name) {
+		var index = columns.get(name);
+		if (index == null || index >= values.size() || values.get(index).isEmpty()) {
+			return null;
+		}
+		return values.get(index);
+	}
+
+	/**
+	 * Split one CSV record. Supports quoted values with "" escapes. Records must be on a single line.
+	 * 
+	 * @param line line
+	 * @return values
+	 */
+	private List<String> splitCsv(String line) {
+		var values = new ArrayList<String>();
+		var value = new StringBuilder();
+		var quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			var c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					value.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					value.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(value.toString());
+				value.setLength(0);
+			} else {
+				value.append(c);
+			}
+		}
+		values.add(value.toString());
+		return values;
+	}
+}
@@ -1,8 +1,10 @@
 package com.bookstore.business;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.bookstore.models.BookModel;
+import com.bookstore.models.BookPageModel;
 
 /**
  * Book Store Business interface
@@ -10,10 +12,19 @@ import com.bookstore.models.BookModel;
 public interface BookStoreInterface {
 	
 	/**
-	 * Get all the books 
-	 * @return books
+	 * Get a page of all the books ordered by id
+	 * @param pageSize number of books in the page
+	 * @param token continuation token of the previous page or null for the first page
+	 * @return book page
+	 */
+	public BookPageModel getAllBooks(int pageSize, String token);
+	
+	/**
+	 * Export every book in id order without holding them all in memory
+	 * @param consumer called once for each book
+	 * @return number of books exported
 	 */
-	public List<BookModel> getAllBooks();
+	public long exportAllBooks(Consumer<BookModel> consumer);
 	
 	/**
 	 * Get books listed by a user
@@ -22,6 +33,23 @@ public interface BookStoreInterface {
 	 */
 	public List<BookModel> getBooksForUser(String user);
 	
+	/**
+	 * Get the first books listed by a user in id order
+	 * @param user user
+	 * @param limit maximum number of books
+	 * @return books
+	 */
+	public List<BookModel> getFirstBooksForUser(String user, int limit);
+	
+	/**
+	 * Get the first books listed by a user whose id is already known
+	 * @param userId user id
+	 * @param user user
+	 * @param limit maximum number of books
+	 * @return books
+	 */
+	public List<BookModel> getFirstBooksForUser(long userId, String user, int limit);
+	
 	/**
 	 * Get Book data for a specific id of book
 	 * @param id book id
@@ -59,10 +87,12 @@ public interface BookStoreInterface {
 	public boolean deleteAllBooksForUser(String user);
 	
 	/**
-	 * Get the list of book that belong to other users than currently logged in.
+	 * Get a page of books that belong to other users than currently logged in.
 	 * 
 	 * @param currentUser current user
-	 * @return list of books
+	 * @param pageSize number of books in the page
+	 * @param token continuation token of the previous page or null for the first page
+	 * @return book page
 	 */
-	public List<BookModel> getBooksOfOthers(String currentUser);
+	public BookPageModel getBooksOfOthers(String currentUser, int pageSize, String token);
 }
@@ -1,19 +1,25 @@
 package com.bookstore.business;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import com.bookstore.data.BookDataService;
 import com.bookstore.data.UserDataService;
 import com.bookstore.data.entity.BookEntity;
-import com.bookstore.data.entity.UserEntity;
+import com.bookstore.data.entity.BookListingEntity;
 import com.bookstore.models.BookModel;
+import com.bookstore.models.BookPageModel;
 /**
  * Main Book service class
  */
@@ -22,6 +28,8 @@ public class BookStoreService implements BookStoreInterface {
 
 	private static final Logger logger = LogManager.getLogger(BookStoreService.class);
 
+	private static final int MAX_PAGE_SIZE = 100; // Upper bound of books in one page
+
 	@Autowired
 	private BookDataService bookService;
 
@@ -42,10 +50,30 @@ public class BookStoreService implements BookStoreInterface {
 	 */
 	private BookModel entityToModel(BookEntity book, String user) {
 		logger.debug("Converting BookEntity to BookModel for book: {}", book.getName());
-		return new BookModel(book.getBookId(), book.getName(), book.getAuthor(), book.getPublishDate(),
+		return new BookModel(toBookId(book.getId()), book.getName(), book.getAuthor(), book.getPublishDate(),
 				book.getDescription(), book.getPrice(), book.getQuantity(), user);
 	}
 
+	/**
+	 * Public book id is derived from the DB id, so it never needs a second write
+	 * 
+	 * @param id db id
+	 * @return book id like BK12
+	 */
+	private static String toBookId(long id) {
+		return "BK" + id;
+	}
+
+	/**
+	 * Parse Book ID to number by removing BK part
+	 * 
+	 * @param bookId book id like BK12
+	 * @return db id
+	 */
+	private static long parseBookId(String bookId) {
+		return Long.parseLong(bookId.substring(2));
+	}
+
 	/**
 	 * Create entity based on model
 	 * 
@@ -55,14 +83,13 @@ public class BookStoreService implements BookStoreInterface {
 	private BookEntity modelToEntity(BookModel book) {
 		logger.debug("Converting BookModel to BookEntity for book: {}", book.getName());
 		// Find the owner id
-		var owner = findUserEntity(book.getOwner());
+		var owner = findUserId(book.getOwner());
 		if (owner != null) {
 			try {
-				// Parse Book ID to number by removing BK part
-				var longId = Integer.parseInt(book.getBookId().substring(2));
+				var longId = parseBookId(book.getBookId());
 				// Create entity
-				return new BookEntity(longId, book.getBookId(), book.getName(), book.getAuthor(), book.getPublishDate(),
-						book.getDescription(), book.getPrice(), book.getQuantity(), owner.getId());
+				return new BookEntity(longId, toBookId(longId), book.getName(), book.getAuthor(), book.getPublishDate(),
+						book.getDescription(), book.getPrice(), book.getQuantity(), owner);
 			} catch (Exception ex) {
 				logger.error("Error converting BookModel to BookEntity: {}", ex.getMessage(), ex);
 				ex.printStackTrace();
@@ -73,24 +100,30 @@ public class BookStoreService implements BookStoreInterface {
 	}
 
 	/**
-	 * Get all books in the DB
+	 * Get a page of books in the DB
 	 */
 	@Override
-	public List<BookModel> getAllBooks() {
-		logger.info("Fetching all books");
-		var books = bookService.findAll();
+	public BookPageModel getAllBooks(int pageSize, String token) {
+		logger.debug("Fetching page of all books");
+		var size = clampPageSize(pageSize);
 
-		var bookModels = new ArrayList<BookModel>();
-		for (var book : books) {
+		// Books and owner names come back in a single joined query. One extra row tells if there is a next page
+		var books = bookService.findListingsAfter(decodeToken(token), size + 1);
 
-			var owner = userService.findById(book.getOwner());
-			if (owner != null) {
-				bookModels.add(entityToModel(book, owner.getUserName()));
-			}
-		}
+		var page = toPage(books, size);
+		logger.debug("Fetched {} books", page.getBooks().size());
+		return page;
+	}
 
-		logger.info("Fetched {} books", bookModels.size());
-		return bookModels;
+	/**
+	 * Stream all books in the DB to the consumer
+	 */
+	@Override
+	public long exportAllBooks(Consumer<BookModel> consumer) {
+		logger.debug("Exporting all books");
+		var count = bookService.streamAllListings(book -> consumer.accept(entityToModel(book, book.getOwnerName())));
+		logger.debug("Exported {} books", count);
+		return count;
 	}
 
 	/**
@@ -99,67 +132,60 @@ public class BookStoreService implements BookStoreInterface {
 	@Override
 	public List<BookModel> getBooksForUser(String userName) {
 
-		// TODO: Update UserDataService to use custom query to find user with WHERE
-		// clause
-		logger.info("Fetching books for user: {}", userName);
-		UserEntity userObj = findUserEntity(userName);
+		logger.debug("Fetching books for user: {}", userName);
+		var userId = findUserId(userName);
 
 		var bookModels = new ArrayList<BookModel>();
-		if (userObj != null) {
-			var books = bookService.findAll();
-			for (var book : books) {
-
-				if (book.getOwner() == userObj.getId()) {
-					bookModels.add(entityToModel(book, userObj.getUserName()));
+		if (userId != null) {
+			// Only the owner's rows are read from DB
+			var books = bookService.findByOwner(userId);
+			if (books != null) {
+				for (var book : books) {
+					bookModels.add(entityToModel(book, userName));
 				}
 			}
 		}
 
-		logger.info("Fetched {} books for user: {}", bookModels.size(), userName);
+		logger.debug("Fetched {} books for user: {}", bookModels.size(), userName);
 		return bookModels;
 	}
 
 	/**
-	 * Find a user entity based on name
+	 * Find a user id based on name
 	 * 
-	 * @param userName
-	 * @return
+	 * @param userName user name
+	 * @return id or null
 	 */
-	private UserEntity findUserEntity(String userName) {
-		logger.debug("Finding user entity for userName: {}", userName);
-		UserEntity userObj = null;
-
-		// Get all users and compare names
-		var users = userService.findAll();
-		for (var user : users) {
-			if (user.getUserName().compareTo(userName) == 0) {
-				userObj = user;
-			}
-		}
+	private Long findUserId(String userName) {
+		logger.debug("Finding user id for userName: {}", userName);
 
-		logger.warn("User not found for userName: {}", userName);
-		return userObj;
+		// Cached lookup on the unique user name
+		var userId = userService.findIdByUserName(userName);
+		if (userId == null) {
+			logger.warn("User not found for userName: {}", userName);
+		}
+		return userId;
 	}
 
 	/**
 	 * Add new book
 	 */
 	@Override
+	@Transactional
 	public boolean addBook(BookModel book) {
-		logger.info("Adding book: {}", book.getName());
+		logger.debug("Adding book: {}", book.getName());
 		// Find the owner id
-		var owner = findUserEntity(book.getOwner());
+		var owner = findUserId(book.getOwner());
 		if (owner != null) {
-			// Create entity and update DB with temp BOOK_ID we will update it below
-			var entity = new BookEntity(0, "BK1", book.getName(), book.getAuthor(), book.getPublishDate(),
-					book.getDescription(), book.getPrice(), book.getQuantity(), owner.getId());
+			// Single INSERT. BOOK_ID is not written, the public id is derived from the generated id
+			var entity = new BookEntity(0, null, book.getName(), book.getAuthor(), book.getPublishDate(),
+					book.getDescription(), book.getPrice(), book.getQuantity(), owner);
 			entity = bookService.create(entity); // Get updated entity
 
 			if (entity != null) {
-				// TODO: Workaround : update book id with the new id from DB
-				entity.setBookId(String.format("BK%d", entity.getId()));
-				logger.info("Book added successfully: {}", book.getName());
-				return bookService.update(entity);
+				book.setBookId(toBookId(entity.getId()));
+				logger.debug("Book added successfully: {}", book.getBookId());
+				return true;
 			}
 		}
 
@@ -171,13 +197,15 @@ public class BookStoreService implements BookStoreInterface {
 	 * Update a book
 	 */
 	@Override
+	@Transactional
 	public boolean updateBook(BookModel book) {
 		// Create entity and update DB
-		logger.info("Updating book: {}", book.getName());
+		logger.debug("Updating book: {}", book.getName());
 		var entity = modelToEntity(book);
 		if (entity != null) {
-			logger.info("Book update status: {}", bookService.update(entity));
-			return bookService.update(entity);
+			boolean success = bookService.update(entity);
+			logger.debug("Book update status: {}", success);
+			return success;
 		}
 
 		logger.warn("Failed to update book: {}", book.getName());
@@ -188,33 +216,58 @@ public class BookStoreService implements BookStoreInterface {
 	 * Delete book
 	 */
 	@Override
+	@Transactional
 	public boolean deleteBook(BookModel book) {
 
 		// Create entity and delete from DB
-		logger.info("Deleting book: {}", book.getName());
+		logger.debug("Deleting book: {}", book.getName());
 		var entity = modelToEntity(book);
 		if (entity != null) {
 			boolean success = bookService.delete(entity);
-			logger.info("Book delete status: {}", success);
+			logger.debug("Book delete status: {}", success);
 			return success;
 		}
 		logger.warn("Failed to delete book: {}", book.getName());
 		return false;
 	}
 
+	/**
+	 * Get the first books for a user with a bounded query
+	 */
+	@Override
+	public List<BookModel> getFirstBooksForUser(String userName, int limit) {
+		logger.debug("Fetching first {} books for user: {}", limit, userName);
+		var userId = findUserId(userName);
+		if (userId == null) {
+			return new ArrayList<BookModel>();
+		}
+		return getFirstBooksForUser(userId, userName, limit);
+	}
+
+	/**
+	 * Get the first books for a known user id with a single bounded query
+	 */
+	@Override
+	public List<BookModel> getFirstBooksForUser(long userId, String userName, int limit) {
+		var bookModels = new ArrayList<BookModel>();
+		for (var book : bookService.findFirstByOwner(userId, limit)) {
+			bookModels.add(entityToModel(book, userName));
+		}
+		return bookModels;
+	}
+
 	/**
 	 * Get book with a specific id
 	 */
 	@Override
 	public BookModel getBookForId(String id, String userName) {
-		logger.info("Fetching book for id: {}", id);
+		logger.debug("Fetching book for id: {}", id);
 		try {
-			// Parse Book ID to number by removing BK part
-			var longId = Integer.parseInt(id.substring(2));
+			var longId = parseBookId(id);
 			var book = bookService.findById(longId);
 			if (book != null) {
-				UserEntity userObj = findUserEntity(userName);
-				return entityToModel(book, userObj.getUserName());
+				// Owner name of the book from the id cache
+				return entityToModel(book, userService.findUserNameById(book.getOwner()));
 			}
 		} catch (Exception ex) {
 			logger.error("Error fetching book for id {}: {}", id, ex.getMessage(), ex);
@@ -225,42 +278,100 @@ public class BookStoreService implements BookStoreInterface {
 	}
 
 	@Override
+	@Transactional
 	public boolean deleteAllBooksForUser(String userName) {
-		logger.info("Deleting all books for user: {}", userName);
-		UserEntity userObj = findUserEntity(userName);
-		if (userObj != null) {
-			var books = bookService.findAll();
-			for (var book : books) {
-
-				if (book.getOwner() == userObj.getId()) {
-					bookService.delete(book);
-				}
+		logger.debug("Deleting all books for user: {}", userName);
+		var userId = findUserId(userName);
+		if (userId != null) {
+			if (!bookService.deleteAllByOwner(userId)) {
+				// All chunks run in this transaction, so none of them stays deleted
+				logger.warn("Failed to delete books for user: {}", userName);
+				TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+				return false;
 			}
 		}
 
-		logger.info("All books deleted for user: {}", userName);
+		logger.debug("All books deleted for user: {}", userName);
 		return true;
 	}
 
 	@Override
-	public List<BookModel> getBooksOfOthers(String currentUser) {
-		// TODO: Update UserDataService to use custom query to find user with WHERE
-		// clause
-		logger.info("Fetching books of others for current user: {}", currentUser);
-		UserEntity userObj = findUserEntity(currentUser);
+	public BookPageModel getBooksOfOthers(String currentUser, int pageSize, String token) {
+		logger.debug("Fetching books of others for current user: {}", currentUser);
+		var userId = findUserId(currentUser);
+
+		var page = new BookPageModel();
+		if (userId != null) {
+			var size = clampPageSize(pageSize);
+			// Filter out the current user's rows in DB
+			var books = bookService.findListingsByOwnerNotAfter(userId, decodeToken(token), size + 1);
+			page = toPage(books, size);
+		}
 
-		var bookModels = new ArrayList<BookModel>();
-		if (userObj != null) {
-			var books = bookService.findAll();
-			for (var book : books) {
+		logger.debug("Fetched {} books of others for user: {}", page.getBooks().size(), currentUser);
+		return page;
+	}
 
-				if (book.getOwner() != userObj.getId()) {
-					bookModels.add(entityToModel(book, userObj.getUserName()));
-				}
+	/**
+	 * Keep the page size within limits
+	 * 
+	 * @param pageSize requested size
+	 * @return size to use
+	 */
+	private int clampPageSize(int pageSize) {
+		return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+	}
+
+	/**
+	 * Build a page from listing rows fetched with one extra row
+	 * 
+	 * @param books rows, up to pageSize + 1, or null if they could not be read
+	 * @param pageSize page size
+	 * @return page with next token if more rows exist
+	 */
+	private BookPageModel toPage(List<BookListingEntity> books, int pageSize) {
+		var bookModels = new ArrayList<BookModel>();
+		String nextToken = null;
+		if (books == null) {
+			return new BookPageModel(bookModels, nextToken);
+		}
+		for (var book : books) {
+			if (bookModels.size() == pageSize) {
+				// There is at least one more row. Continue after the last one in this page
+				nextToken = encodeToken(books.get(pageSize - 1).getId());
+				break;
 			}
+			bookModels.add(entityToModel(book, book.getOwnerName()));
 		}
+		return new BookPageModel(bookModels, nextToken);
+	}
 
-		logger.info("Fetched {} books of others for user: {}", bookModels.size(), currentUser);
-		return bookModels;
+	/**
+	 * Create an opaque continuation token for the last id of a page
+	 * 
+	 * @param lastId last id
+	 * @return token
+	 */
+	private String encodeToken(long lastId) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Read the last id from a continuation token
+	 * 
+	 * @param token token or null for first page
+	 * @return last id of previous page
+	 */
+	private long decodeToken(String token) {
+		if (token == null || token.isEmpty()) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+		} catch (IllegalArgumentException ex) {
+			logger.warn("Invalid continuation token: {}", token);
+			throw new IllegalArgumentException("Invalid continuation token", ex);
+		}
 	}
 }
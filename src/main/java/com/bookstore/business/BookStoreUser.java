@@ -0,0 +1,36 @@
+package com.bookstore.business;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Authenticated user details that keep the user id loaded during authentication,
+ * so the session can be set up without looking the user up again.
+ */
+public class BookStoreUser extends User {
+	private static final long serialVersionUID = 1L;
+
+	private final long userId;
+
+	/**
+	 * Create authenticated user details
+	 * @param userId user id
+	 * @param userName user name
+	 * @param password password hash
+	 * @param authorities granted authorities
+	 */
+	public BookStoreUser(long userId, String userName, String password, Collection<? extends GrantedAuthority> authorities) {
+		super(userName, password, authorities);
+		this.userId = userId;
+	}
+
+	/**
+	 * Get user id
+	 * @return user id
+	 */
+	public long getUserId() {
+		return userId;
+	}
+}
@@ -0,0 +1,25 @@
+package com.bookstore.business;
+
+import com.bookstore.models.SalesSummaryModel;
+
+/**
+ * Order ledger business interface
+ */
+public interface OrderInterface {
+
+	/**
+	 * Buy units of a book listed by another user
+	 * @param bookId book id
+	 * @param quantity units
+	 * @param buyer user buying
+	 * @return success or fail
+	 */
+	public boolean placeOrder(String bookId, int quantity, String buyer);
+
+	/**
+	 * Get the running sales totals of a seller
+	 * @param seller user selling
+	 * @return totals, zero when nothing is sold yet
+	 */
+	public SalesSummaryModel getSalesSummary(String seller);
+}
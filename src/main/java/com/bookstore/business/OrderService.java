@@ -0,0 +1,100 @@
+package com.bookstore.business;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Date;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import com.bookstore.data.BookDataService;
+import com.bookstore.data.OrderDataService;
+import com.bookstore.data.UserDataService;
+import com.bookstore.data.entity.OrderEntity;
+import com.bookstore.models.SalesSummaryModel;
+
+/**
+ * Order ledger service. Every order also updates the seller totals in the same
+ * transaction, so the dashboard reads one row instead of aggregating orders.
+ */
+@Service
+public class OrderService implements OrderInterface {
+
+	private static final Logger logger = LogManager.getLogger(OrderService.class);
+
+	@Autowired
+	private OrderDataService orderService;
+
+	@Autowired
+	private BookDataService bookService;
+
+	@Autowired
+	private UserDataService userService;
+
+	/**
+	 * Create an order service
+	 */
+	public OrderService() {
+
+	}
+
+	@Override
+	@Transactional
+	public boolean placeOrder(String bookId, int quantity, String buyer) {
+		logger.debug("Placing order for book: {} by user: {}", bookId, buyer);
+		if (quantity <= 0) {
+			logger.warn("Invalid order quantity: {}", quantity);
+			return false;
+		}
+
+		var buyerId = userService.findIdByUserName(buyer);
+		if (buyerId == null) {
+			logger.warn("Buyer not found: {}", buyer);
+			return false;
+		}
+
+		try {
+			// Parse Book ID to number by removing BK part
+			var book = bookService.findById(Long.parseLong(bookId.substring(2)));
+			if (book == null || book.getOwner() == buyerId) {
+				logger.warn("Book {} can not be ordered by user: {}", bookId, buyer);
+				return false;
+			}
+
+			// Stock, ledger and seller totals change together or not at all
+			// Listing prices are floats. The ledger keeps exact cents
+			var price = BigDecimal.valueOf(book.getPrice()).setScale(2, RoundingMode.HALF_UP);
+			var order = new OrderEntity(0, book.getId(), book.getOwner(), buyerId, quantity, price, new Date());
+			if (!bookService.takeStock(book, quantity) || orderService.create(order) == null
+					|| !orderService.addSale(order)) {
+				logger.warn("Order failed for book: {} by user: {}", bookId, buyer);
+				TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+				return false;
+			}
+		} catch (Exception ex) {
+			logger.error("Error placing order for book {}: {}", bookId, ex.getMessage(), ex);
+			TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+			return false;
+		}
+
+		logger.debug("Order placed for book: {} by user: {}", bookId, buyer);
+		return true;
+	}
+
+	@Override
+	public SalesSummaryModel getSalesSummary(String seller) {
+		var sellerId = userService.findIdByUserName(seller);
+		if (sellerId != null) {
+			// One primary key read of the precomputed totals
+			var summary = orderService.findSellerSummary(sellerId);
+			if (summary != null) {
+				return new SalesSummaryModel(summary.getProfit(), summary.getUnitsSold());
+			}
+		}
+		return new SalesSummaryModel(BigDecimal.ZERO, 0);
+	}
+}
@@ -41,4 +41,12 @@ public interface UserManagementInterface {
 	 * @return success/fail
 	 */
 	public boolean deleteUser(UserModel user);
+	
+	/**
+	 * Remove all books listed by a user, then the seller totals and the user, in one transaction.
+	 * Nothing is removed if any step fails. Orders of the user stay in the ledger
+	 * @param user user
+	 * @return success/fail
+	 */
+	public boolean deleteUserAccount(UserModel user);
 }
@@ -7,12 +7,16 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import com.bookstore.data.BookDataService;
+import com.bookstore.data.OrderDataService;
 import com.bookstore.data.UserDataService;
 import com.bookstore.data.entity.UserEntity;
 import com.bookstore.models.UserModel;
@@ -21,11 +25,17 @@ import com.bookstore.models.UserModel;
  * User management business service to manipulate users 
  */
 @Service
-public class UserManagementService implements UserManagementInterface, UserDetailsService {
+public class UserManagementService implements UserManagementInterface, UserDetailsService, UserDetailsPasswordService {
 	private static final Logger logger = LogManager.getLogger(UserManagementService.class);
 
 	@Autowired
 	private UserDataService userManager;
+
+	@Autowired
+	private BookDataService bookManager;
+
+	@Autowired
+	private OrderDataService orderManager;
 	
 	/**
 	 * Create a user management service object
@@ -41,15 +51,7 @@ public class UserManagementService implements UserManagementInterface, UserDetai
 	 */
 	private UserEntity findUserEntity(String userName) {
 		logger.debug("Finding user entity for userName: {}", userName);
-		var users = userManager.findAll();
-		UserEntity userObj = null;
-		for (var user : users) {
-			if (user.getUserName().compareTo(userName) == 0) {
-				logger.debug("User found: {}", userName);
-				userObj = user;
-				break;
-			}
-		}
+		var userObj = userManager.findByUserName(userName);
 		if(userObj == null){
 			logger.warn("User not found for userName: {}", userName);
 		}
@@ -58,15 +60,13 @@ public class UserManagementService implements UserManagementInterface, UserDetai
 
 	@Override
 	public boolean authenticate(String userName, String password) {
-		logger.info("Authenticating user: {}", userName);
-		// Get user list and find the matching one
-		var users = userManager.findAll();
-		for (var user : users) {
-			if (user.getUserName().compareTo(userName) == 0 && user.getPassword().compareTo(password) == 0) {
-				// valid user if user name and password matches
-				logger.info("Authentication successful for user: {}", userName);
-				return true;
-			}
+		logger.debug("Authenticating user: {}", userName);
+		// Find the user by name and match the password
+		var user = findUserEntity(userName);
+		if (user != null && user.getPassword().compareTo(password) == 0) {
+			// valid user if user name and password matches
+			logger.debug("Authentication successful for user: {}", userName);
+			return true;
 		}
 
 		// return false if not found
@@ -76,18 +76,15 @@ public class UserManagementService implements UserManagementInterface, UserDetai
 
 	@Override
 	public boolean isDuplicateUser(String userName) {
-		logger.info("Checking if user is duplicate for userName: {}", userName);
-		var users = userManager.findAll();
-		for (var user : users) {
-			if (user.getUserName().compareTo(userName) == 0) {
-				// duplicate user if a match is found on name
-				logger.warn("Duplicate user found: {}", userName);
-				return true;
-			}
+		logger.debug("Checking if user is duplicate for userName: {}", userName);
+		if (userManager.findByUserName(userName) != null) {
+			// duplicate user if a match is found on name
+			logger.warn("Duplicate user found: {}", userName);
+			return true;
 		}
 
 		// return false if not found
-		logger.info("No duplicate user found for userName: {}", userName);
+		logger.debug("No duplicate user found for userName: {}", userName);
 		return false;
 	}
 
@@ -97,7 +94,7 @@ public class UserManagementService implements UserManagementInterface, UserDetai
 	 * @return UserModel object or null
 	 */
 	public UserModel getUser(String userName) {
-		logger.info("Fetching user details for userName: {}", userName);
+		logger.debug("Fetching user details for userName: {}", userName);
 		var userObj = findUserEntity(userName);		
 
 		if (userObj != null) {
@@ -108,7 +105,7 @@ public class UserManagementService implements UserManagementInterface, UserDetai
 			user.setLastName(userObj.getLastName());
 			user.setEmail(userObj.getEmail());
 			user.setPhone(userObj.getPhone());
-			logger.info("User details fetched successfully for userName: {}", userName);
+			logger.debug("User details fetched successfully for userName: {}", userName);
 			return user;
 		} else {
 			logger.warn("User not found for userName: {}", userName);
@@ -118,12 +115,12 @@ public class UserManagementService implements UserManagementInterface, UserDetai
 
 	@Override
 	public boolean addUser(UserModel user) {
-		logger.info("Adding new user: {}", user.getUserName());
+		logger.debug("Adding new user: {}", user.getUserName());
 		var entity = new UserEntity(0, user.getUserName(), user.getPassword(), user.getFirstName(), user.getLastName(),
 				user.getEmail(), user.getPhone());
 		boolean success = userManager.create(entity) != null;
 		if (success) {
-			logger.info("User added successfully: {}", user.getUserName());
+			logger.debug("User added successfully: {}", user.getUserName());
 		} else {
 			logger.warn("Failed to add user: {}", user.getUserName());
 		}
@@ -133,7 +130,7 @@ public class UserManagementService implements UserManagementInterface, UserDetai
 	@Override
 	public boolean updateUser(UserModel userModel) {
 		// Find existing user id
-		logger.info("Updating user: {}", userModel.getUserName());
+		logger.debug("Updating user: {}", userModel.getUserName());
 		var userObj = findUserEntity(userModel.getUserName());
 
 		if(userObj != null) {
@@ -142,7 +139,7 @@ public class UserManagementService implements UserManagementInterface, UserDetai
 					userModel.getEmail(), userModel.getPhone());
 			boolean success = userManager.update(entity);
 			if (success) {
-				logger.info("User updated successfully: {}", userModel.getUserName());
+				logger.debug("User updated successfully: {}", userModel.getUserName());
 			} else {
 				logger.warn("Failed to update user: {}", userModel.getUserName());
 			}
@@ -155,12 +152,12 @@ public class UserManagementService implements UserManagementInterface, UserDetai
 	@Override
 	public boolean deleteUser(UserModel userModel) {
 		// Find the user and initiate delete
-		logger.info("Deleting : {}", userModel.getUserName());
+		logger.debug("Deleting : {}", userModel.getUserName());
 		var userObj= findUserEntity(userModel.getUserName());
 		if (userObj != null) {
 			boolean success = userManager.delete(userObj);
 			if (success) {
-				logger.info("User deleted successfully: {}", userModel.getUserName());
+				logger.debug("User deleted successfully: {}", userModel.getUserName());
 			} else {
 				logger.warn("Failed to delete user: {}", userModel.getUserName());
 			}
@@ -170,21 +167,75 @@ public class UserManagementService implements UserManagementInterface, UserDetai
 		return false;
 	}
 
+	@Override
+	@Transactional
+	public boolean deleteUserAccount(UserModel userModel) {
+		// Find the user once and remove books then the user
+		logger.debug("Deleting account: {}", userModel.getUserName());
+		var userObj = findUserEntity(userModel.getUserName());
+		if (userObj == null) {
+			logger.warn("User not found to delete: {}", userModel.getUserName());
+			return false;
+		}
+
+		if (!bookManager.deleteAllByOwner(userObj.getId())) {
+			logger.error("Failed to delete books for user: {}", userModel.getUserName());
+			TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+			return false;
+		}
+
+		// Orders stay in the ledger, they are also the other party's purchase or sale history.
+		// The running totals only serve this seller's dashboard, so they go with the account
+		if (!orderManager.deleteSellerSummary(userObj.getId())) {
+			logger.error("Failed to delete sales totals for user: {}", userModel.getUserName());
+			TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+			return false;
+		}
+
+		if (!userManager.delete(userObj)) {
+			// Books and totals are deleted in this transaction, so they come back with the account
+			logger.error("Failed to delete user: {}", userModel.getUserName());
+			TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+			return false;
+		}
+
+		logger.debug("Account deleted successfully: {}", userModel.getUserName());
+		return true;
+	}
+
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 		// Find existing user by name
-		logger.info("Loading user by username: {}", username);
+		logger.debug("Loading user by username: {}", username);
 		var user = findUserEntity(username);
 		if (user != null) {
 			// Once found give the User authority. Our app only needs one for now
 			var authorities = new ArrayList<GrantedAuthority>();
 			authorities.add(new SimpleGrantedAuthority("USER"));
-			logger.info("User loaded successfully: {}", username);
-			return new User(user.getUserName(), user.getPassword(), authorities);
+			logger.debug("User loaded successfully: {}", username);
+			return new BookStoreUser(user.getId(), user.getUserName(), user.getPassword(), authorities);
 		}
 		else {
 			logger.error("User not found for username: {}", username);
 			throw new UsernameNotFoundException("User not found");
 		}
 	}
+
+	/**
+	 * Store a rehashed password after a successful login with an outdated work factor
+	 */
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		if (!userManager.updatePassword(user.getUsername(), newPassword)) {
+			// Keep the old hash. Login still works and the next one tries again
+			logger.warn("Password rehash not stored for user: {}", user.getUsername());
+			return user;
+		}
+
+		logger.info("Password rehashed for user: {}", user.getUsername());
+		if (user instanceof BookStoreUser bookStoreUser) {
+			return new BookStoreUser(bookStoreUser.getUserId(), user.getUsername(), newPassword, user.getAuthorities());
+		}
+		return user;
+	}
 }
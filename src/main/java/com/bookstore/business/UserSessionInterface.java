@@ -1,5 +1,6 @@
 package com.bookstore.business;
 
+import com.bookstore.models.BookModel;
 import com.bookstore.models.DashboardModel;
 
 /**
@@ -30,6 +31,24 @@ public interface UserSessionInterface {
 	 */
 	public void updateUserDashboard();
 	
+	/**
+	 * Apply a newly added book to the current user dashboard without rebuilding it
+	 * @param book added book
+	 */
+	public void bookAdded(BookModel book);
+	
+	/**
+	 * Apply changed book details to the current user dashboard without rebuilding it
+	 * @param book updated book
+	 */
+	public void bookUpdated(BookModel book);
+	
+	/**
+	 * Remove a book from the current user dashboard without rebuilding it
+	 * @param book deleted book
+	 */
+	public void bookDeleted(BookModel book);
+	
 	/**
 	 * Log out current user
 	 */
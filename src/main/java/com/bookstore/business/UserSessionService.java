@@ -1,30 +1,75 @@
 package com.bookstore.business;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.context.annotation.SessionScope;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
+import com.bookstore.configs.CacheConfiguration;
+import com.bookstore.configs.SessionStoreSecurityContextRepository;
+import com.bookstore.data.SessionStoreInterface;
+import com.bookstore.data.entity.SessionEntity;
+import com.bookstore.models.BookModel;
 import com.bookstore.models.DashboardModel;
-import com.bookstore.models.UserModel;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
 
 /**
- * Session based service object to handle logged in user 
+ * Service object to handle logged in user.
+ * The session itself is a small record in the session store. The dashboard is a
+ * cache entry keyed by session and dashboard version, so it is rebuilt on any node that misses it.
+ * Rebuilds run on virtual threads and are coalesced per session, so writes never wait for them.
  */
 @Service
-@SessionScope
 public class UserSessionService implements UserSessionInterface{
 	private static final Logger logger = LogManager.getLogger(UserSessionService.class);
+
+	private static final int DASHBOARD_BOOKS = 5; // books shown on the dashboard
 	
 	@Autowired
-	private UserManagementService userManager;
+	private BookStoreInterface bookStore;
 	
 	@Autowired
-	private BookStoreInterface bookStore;
+	private OrderInterface orderService;
 	
-	private UserModel currentUser; // current logged in user
-	private DashboardModel userDashboard;	// Dashboard details of the current user
+	@Autowired
+	private SessionStoreInterface sessionStore;
+	
+	@Autowired
+	private CacheManager cacheManager;
+	
+	@Value("${bookstore.dashboard.refresh-wait:500ms}")
+	private Duration refreshWait = Duration.ofMillis(500); // How long a dashboard view waits for a pending rebuild
+	
+	// Rebuilds continue the trace of the request that queued them
+	private static final ContextSnapshotFactory contextSnapshots = ContextSnapshotFactory.builder().build();
+	private final ExecutorService refreshExecutor = ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor(),
+			() -> contextSnapshots.captureAll());
+	private final ConcurrentHashMap<String, DashboardRefresh> refreshes = new ConcurrentHashMap<>(); // pending rebuild per session id
+	
+	/**
+	 * Pending dashboard rebuild of a session. Only the latest requested version is built
+	 */
+	private static class DashboardRefresh {
+		private final CompletableFuture<Void> done = new CompletableFuture<>();
+		private volatile SessionEntity latest;
+	}
 	
 	/**
 	 * Create a  user session service
@@ -35,22 +80,25 @@ public class UserSessionService implements UserSessionInterface{
 
 	@Override
 	public String getUserName() {
-		if (currentUser != null) {
-			logger.debug("Getting username for current user: {}", currentUser.getUserName());
-			return currentUser.getUserName();
+		var session = currentSession();
+		if (session != null) {
+			logger.debug("Getting username for current user: {}", session.getUserName());
+			return session.getUserName();
 		}
 
-		logger.warn("No current user found.");
+		// Anonymous pages ask on every request, so this is not worth a warning
+		logger.debug("No current user found.");
 		return null;
 	}
 
 	@Override
 	public void setCurrentUser(String user) {
-		logger.info("Setting current user: {}", user);
-		currentUser = userManager.getUser(user);
-		if (currentUser != null) {
-			logger.info("Current user set successfully: {}", currentUser.getUserName());
-			updateUserDashboard();
+		logger.debug("Setting current user: {}", user);
+		var session = currentSession();
+		if (session != null && session.getUserName().equals(user)) {
+			// The session record was written at login with the user id, so only the dashboard preview is queried
+			buildDashboard(session);
+			logger.debug("Current user set successfully: {}", session.getUserName());
 		} else {
 			logger.warn("User not found: {}", user);
 		}
@@ -58,12 +106,30 @@ public class UserSessionService implements UserSessionInterface{
 
 	@Override
 	public DashboardModel getUserDashboard() {
-		if (userDashboard != null) {
-			logger.debug("Fetching dashboard for user: {}", currentUser != null ? currentUser.getUserName() : "No user logged in");
-		} else {
-			logger.warn("No dashboard available for user: {}", currentUser != null ? currentUser.getUserName() : "No user logged in");
+		var session = currentSession();
+		if (session == null) {
+			logger.warn("No dashboard available for user: No user logged in");
+			return null;
+		}
+
+		var userDashboard = cachedDashboard(session);
+		if (userDashboard == null) {
+			userDashboard = awaitRefresh(session);
+		}
+		if (userDashboard == null) {
+			// Another node, an evicted entry or a late rebuild. Build it here
+			userDashboard = buildDashboard(session);
 		}
-		return this.userDashboard;
+
+		// Sales totals change with other users' orders. They are one precomputed row so read them each time.
+		// The cached model is shared between requests, so the totals go on a copy
+		var sales = orderService.getSalesSummary(session.getUserName());
+		var requestDashboard = new DashboardModel();
+		requestDashboard.setBooksOwned(userDashboard.getBooksOwned());
+		requestDashboard.setProfit(sales.getProfit());
+		requestDashboard.setUnitsSold(sales.getUnitsSold());
+		logger.debug("Fetching dashboard for user: {}", session.getUserName());
+		return requestDashboard;
 	}
 	
 	/**
@@ -71,27 +137,258 @@ public class UserSessionService implements UserSessionInterface{
 	 */
 	@Override
 	public void updateUserDashboard() {
-		logger.info("Updating dashboard for user: {}", currentUser.getUserName());
-		this.userDashboard = new DashboardModel();
-		
-		// Update books listed by the user
-		var books = bookStore.getBooksForUser(currentUser.getUserName());
-		if (books!= null) {
-			var smallList = books.size() > 5 ?  books.subList(0, 5) : books; 
-			userDashboard.setBooksOwned(smallList); // Dashboard only need few books
-			logger.info("Dashboard updated with books for user: {}. Books count: {}", currentUser.getUserName(), smallList.size());
+		var session = currentSession();
+		if (session == null) {
+			logger.warn("No current user found to update dashboard.");
+			return;
+		}
+
+		logger.debug("Updating dashboard for user: {}", session.getUserName());
+		nextVersion(session);
+		requestRefresh(session);
+	}
+
+	@Override
+	public void bookAdded(BookModel book) {
+		var session = currentSession();
+		var userDashboard = session != null ? cachedDashboard(session) : null;
+		if (userDashboard == null) {
+			updateUserDashboard();
+			return;
 		}
-		else {
-			logger.warn("No books found for user: {}", currentUser.getUserName());
+
+		// New books get the highest id so they only show when the list has room
+		var books = new ArrayList<>(userDashboard.getBooksOwned());
+		if (books.size() < DASHBOARD_BOOKS) {
+			books.add(book);
+			saveDashboard(session, books);
+			logger.debug("Dashboard book added for user: {}", session.getUserName());
+		}
+	}
+
+	@Override
+	public void bookUpdated(BookModel book) {
+		var session = currentSession();
+		var userDashboard = session != null ? cachedDashboard(session) : null;
+		if (userDashboard == null) {
+			updateUserDashboard();
+			return;
+		}
+
+		// Replace the shown copy if the book is on the dashboard
+		var books = new ArrayList<>(userDashboard.getBooksOwned());
+		for (int i = 0; i < books.size(); i++) {
+			if (books.get(i).getBookId().equals(book.getBookId())) {
+				books.set(i, book);
+				saveDashboard(session, books);
+				logger.debug("Dashboard book updated for user: {}", session.getUserName());
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void bookDeleted(BookModel book) {
+		var session = currentSession();
+		var userDashboard = session != null ? cachedDashboard(session) : null;
+		if (userDashboard == null) {
+			updateUserDashboard();
+			return;
+		}
+
+		var books = new ArrayList<>(userDashboard.getBooksOwned());
+		if (books.removeIf(b -> b.getBookId().equals(book.getBookId()))) {
+			logger.debug("Dashboard book removed for user: {}", session.getUserName());
+			if (books.size() == DASHBOARD_BOOKS - 1) {
+				// The list was full, so another book may move up. The first page query is bounded
+				updateUserDashboard();
+			} else {
+				saveDashboard(session, books);
+			}
 		}
-		
-		// TODO: Update profit using order service
 	}
 	
 	@Override
 	public void logOut() {
-		logger.info("Logging out user: {}", currentUser != null ? currentUser.getUserName() : "No user logged in");
-		this.currentUser = null;
-		this.userDashboard = null;
+		var session = currentSession();
+		logger.debug("Logging out user: {}", session != null ? session.getUserName() : "No user logged in");
+		if (session != null) {
+			sessionStore.delete(session.getId());
+			RequestContextHolder.currentRequestAttributes().removeAttribute(
+					SessionStoreSecurityContextRepository.SESSION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		}
+	}
+
+	/**
+	 * Get the number of sessions with a dashboard rebuild queued or running
+	 * @return count
+	 */
+	public int getPendingRefreshCount() {
+		return refreshes.size();
+	}
+
+	/**
+	 * Stop the rebuild threads
+	 */
+	@PreDestroy
+	public void shutdown() {
+		refreshExecutor.shutdownNow();
+	}
+
+	/**
+	 * Queue a dashboard rebuild for the session version. A rebuild already waiting
+	 * for the session just moves to the newer version instead of running again.
+	 * Versions count per session, so sessions of the same user are never merged.
+	 * 
+	 * @param session session
+	 */
+	private void requestRefresh(SessionEntity session) {
+		var sessionId = session.getId();
+		var target = new SessionEntity(sessionId, session.getUserId(), session.getUserName(), session.getDashboardVersion(),
+				session.getLastAccess());
+		var created = new DashboardRefresh[1];
+		var refresh = refreshes.compute(sessionId, (id, current) -> {
+			if (current == null) {
+				current = new DashboardRefresh();
+				created[0] = current;
+			}
+			current.latest = target;
+			return current;
+		});
+
+		if (created[0] != null) {
+			refreshExecutor.execute(() -> runRefresh(sessionId, refresh));
+		} else {
+			logger.debug("Dashboard refresh coalesced for user: {}", session.getUserName());
+		}
+	}
+
+	/**
+	 * Build the latest requested dashboard until no newer request is pending
+	 * 
+	 * @param sessionId session id
+	 * @param refresh pending rebuild
+	 */
+	private void runRefresh(String sessionId, DashboardRefresh refresh) {
+		try {
+			while (true) {
+				var target = refresh.latest;
+				var userDashboard = buildDashboard(target);
+				logger.debug("Dashboard updated with books for user: {}. Books count: {}", target.getUserName(), userDashboard.getBooksOwned().size());
+
+				// Finish only if nothing newer arrived while building
+				if (refreshes.computeIfPresent(sessionId, (id, current) -> current.latest == target ? null : current) == null) {
+					break;
+				}
+			}
+		} catch (Exception ex) {
+			refreshes.remove(sessionId, refresh);
+			logger.error("Error occurred while refreshing dashboard for user: {}", refresh.latest.getUserName(), ex);
+		} finally {
+			refresh.done.complete(null);
+		}
+	}
+
+	/**
+	 * Wait up to the deadline for a pending rebuild of the session dashboard
+	 * 
+	 * @param session session
+	 * @return dashboard or null
+	 */
+	private DashboardModel awaitRefresh(SessionEntity session) {
+		var refresh = refreshes.get(session.getId());
+		if (refresh == null) {
+			return null;
+		}
+
+		try {
+			refresh.done.get(refreshWait.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (Exception ex) {
+			logger.warn("Dashboard refresh not ready for user: {}", session.getUserName());
+		}
+		return cachedDashboard(session);
+	}
+
+	/**
+	 * Get the session record loaded for the current request
+	 * 
+	 * @return session or null
+	 */
+	private SessionEntity currentSession() {
+		var attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return null;
+		}
+
+		// The security context is loaded lazily. Reading it makes sure the record is on the request
+		SecurityContextHolder.getContext().getAuthentication();
+		return (SessionEntity) attributes.getAttribute(SessionStoreSecurityContextRepository.SESSION_ATTRIBUTE,
+				RequestAttributes.SCOPE_REQUEST);
+	}
+
+	/**
+	 * Get the dashboard of the session version from the cache
+	 * 
+	 * @param session session
+	 * @return dashboard or null
+	 */
+	private DashboardModel cachedDashboard(SessionEntity session) {
+		return cacheManager.getCache(CacheConfiguration.DASHBOARDS).get(dashboardKey(session), DashboardModel.class);
+	}
+
+	/**
+	 * Query the dashboard books and cache them for the session version
+	 * 
+	 * @param session session
+	 * @return dashboard
+	 */
+	private DashboardModel buildDashboard(SessionEntity session) {
+		var userDashboard = new DashboardModel();
+		
+		// Update books listed by the user. Dashboard only need few books so query only those
+		userDashboard.setBooksOwned(bookStore.getFirstBooksForUser(session.getUserId(), session.getUserName(), DASHBOARD_BOOKS));
+		cacheManager.getCache(CacheConfiguration.DASHBOARDS).put(dashboardKey(session), userDashboard);
+		return userDashboard;
+	}
+
+	/**
+	 * Store changed dashboard books under a new version
+	 * 
+	 * @param session session
+	 * @param books dashboard books
+	 */
+	private void saveDashboard(SessionEntity session, List<BookModel> books) {
+		var userDashboard = new DashboardModel();
+		userDashboard.setBooksOwned(books);
+		nextVersion(session);
+		cacheManager.getCache(CacheConfiguration.DASHBOARDS).put(dashboardKey(session), userDashboard);
+	}
+
+	/**
+	 * Move the session to a new dashboard version so stale copies on other nodes are not used
+	 * 
+	 * @param session session
+	 */
+	private void nextVersion(SessionEntity session) {
+		var version = sessionStore.nextDashboardVersion(session.getId());
+		if (version < 0) {
+			logger.warn("Failed to move dashboard version of session for user: {}", session.getUserName());
+			// Still move this request on so it does not read its own stale entry
+			version = session.getDashboardVersion() + 1;
+		}
+		session.setDashboardVersion(version);
+	}
+
+	/**
+	 * Get the dashboard cache key of the session. Versions count per session, so the
+	 * session id is part of the key and two sessions of a user never share an entry
+	 * 
+	 * @param session session
+	 * @return key
+	 */
+	private String dashboardKey(SessionEntity session) {
+		return session.getUserId() + ":" + session.getId() + ":" + session.getDashboardVersion();
 	}
 }
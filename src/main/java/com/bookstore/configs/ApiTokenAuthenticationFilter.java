@@ -0,0 +1,47 @@
+package com.bookstore.configs;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates REST API calls from an Authorization: Bearer token.
+ * The context lives only for the request, nothing is stored between calls.
+ * Created by the security configuration only, so it is not registered as a servlet filter as well.
+ */
+public class ApiTokenAuthenticationFilter extends OncePerRequestFilter {
+	private static final String BEARER = "Bearer ";
+
+	private final ApiTokenService tokenService;
+
+	/**
+	 * Create API token filter
+	 * @param tokenService token service
+	 */
+	public ApiTokenAuthenticationFilter(ApiTokenService tokenService) {
+		this.tokenService = tokenService;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		var header = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if (header != null && header.startsWith(BEARER)) {
+			var authentication = tokenService.verify(header.substring(BEARER.length()).trim());
+			if (authentication != null) {
+				var context = SecurityContextHolder.createEmptyContext();
+				context.setAuthentication(authentication);
+				SecurityContextHolder.setContext(context);
+				RequestSummary.setUser(authentication.getName());
+			}
+		}
+		filterChain.doFilter(request, response);
+	}
+}
@@ -0,0 +1,133 @@
+package com.bookstore.configs;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.bookstore.business.BookStoreUser;
+import com.bookstore.data.UserDataService;
+
+/**
+ * Issues and checks signed bearer tokens for the REST API.
+ * A token is the user id, user name and expiry time signed with HMAC-SHA256, so any node
+ * with the same secret can check it without a session. The id is checked against the cached
+ * id of the name, so tokens of a deleted account do not work for a new user of the same name.
+ */
+@Component
+public class ApiTokenService {
+	private static final Logger logger = LogManager.getLogger(ApiTokenService.class);
+
+	private static final String ALGORITHM = "HmacSHA256";
+	private static final List<GrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("USER"));
+
+	private final SecretKeySpec key;
+	private final Duration timeToLive;
+	private final UserDataService userService;
+
+	/**
+	 * Create API token service
+	 * @param secret signing secret, shared by all nodes
+	 * @param timeToLive token lifetime
+	 * @param userService user lookup for the account check
+	 */
+	public ApiTokenService(@Value("${bookstore.api.token.secret:}") String secret,
+			@Value("${bookstore.api.token.ttl:1h}") Duration timeToLive, UserDataService userService) {
+		if (secret == null || secret.isBlank()) {
+			// A key of its own per node would reject every token issued by the other nodes
+			throw new IllegalStateException("bookstore.api.token.secret is not set. Set the same secret on every node");
+		}
+		this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+		this.timeToLive = timeToLive;
+		this.userService = userService;
+	}
+
+	/**
+	 * Create a token for a user
+	 * @param userId user id
+	 * @param userName user name
+	 * @return token
+	 */
+	public String issue(long userId, String userName) {
+		var expires = System.currentTimeMillis() + timeToLive.toMillis();
+		var payload = userId + ":" + expires + ":" + userName;
+		var encoder = Base64.getUrlEncoder().withoutPadding();
+		return encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + encoder.encodeToString(sign(payload));
+	}
+
+	/**
+	 * Get token lifetime
+	 * @return lifetime
+	 */
+	public Duration getTimeToLive() {
+		return timeToLive;
+	}
+
+	/**
+	 * Check a token and build the authentication it stands for
+	 * @param token token
+	 * @return authentication with a BookStoreUser principal, or null if the token is malformed, forged,
+	 * expired or its account no longer exists
+	 */
+	public Authentication verify(String token) {
+		try {
+			var dot = token.indexOf('.');
+			if (dot < 0) {
+				return null;
+			}
+			var decoder = Base64.getUrlDecoder();
+			var payload = new String(decoder.decode(token.substring(0, dot)), StandardCharsets.UTF_8);
+			if (!MessageDigest.isEqual(sign(payload), decoder.decode(token.substring(dot + 1)))) {
+				return null;
+			}
+
+			// userId:expires:userName, the name is last as it is the only part that may hold a colon
+			var parts = payload.split(":", 3);
+			if (parts.length != 3 || Long.parseLong(parts[1]) < System.currentTimeMillis()) {
+				return null;
+			}
+
+			// The account may have been deleted, and its name taken by someone else, after the token was issued
+			var userId = Long.parseLong(parts[0]);
+			var currentId = userService.findIdByUserName(parts[2]);
+			if (currentId == null || currentId != userId) {
+				logger.warn("API token of user {} does not match a current account", parts[2]);
+				return null;
+			}
+			var user = new BookStoreUser(userId, parts[2], "", AUTHORITIES);
+			return UsernamePasswordAuthenticationToken.authenticated(user, null, AUTHORITIES);
+		} catch (IllegalArgumentException ex) {
+			// Bad base64 or number
+			return null;
+		}
+	}
+
+	/**
+	 * Sign the token payload
+	 * @param payload payload
+	 * @return signature
+	 */
+	private byte[] sign(String payload) {
+		try {
+			var mac = Mac.getInstance(ALGORITHM);
+			mac.init(key);
+			return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("HMAC not available", ex);
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package com.bookstore.configs;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt password encoder that hashes on a small dedicated pool.
+ * A burst of logins queues behind a bounded number of hashing threads and is rejected once
+ * the queue is full, instead of taking every CPU away from page rendering. A rejected hash throws
+ * AuthenticationServiceException, so the login fails through the normal failure handler.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+	private static final Logger logger = LogManager.getLogger(BoundedPasswordEncoder.class);
+
+	private final BCryptPasswordEncoder delegate;
+	private final int strength;
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Create bounded password encoder
+	 * @param strength BCrypt work factor (log rounds)
+	 * @param threads hashing threads, zero for one per core
+	 * @param queueSize hashes allowed to wait for a thread
+	 */
+	public BoundedPasswordEncoder(int strength, int threads, int queueSize) {
+		this.delegate = new BCryptPasswordEncoder(strength);
+		this.strength = strength;
+
+		var poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		var count = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueSize), runnable -> {
+					var thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		logger.info("Password hashing with BCrypt strength {} on {} threads", strength, poolSize);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return run(() -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return run(() -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	/**
+	 * Hashes made with any other work factor are upgraded on the next successful login,
+	 * so lowering the factor is picked up as well as raising it
+	 */
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		// BCrypt hashes look like $2a$10$..., the second field is the work factor
+		if (encodedPassword == null || encodedPassword.length() < 7) {
+			return false;
+		}
+		try {
+			return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+		} catch (NumberFormatException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Get the hashing pool, for metrics
+	 * @return executor
+	 */
+	ThreadPoolExecutor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Stop the hashing threads
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Run a hash on the pool and wait for it
+	 * @param <T> result type
+	 * @param task hashing work
+	 * @return result
+	 * @throws AuthenticationServiceException when the queue is full, so a login fails instead of erroring
+	 */
+	private <T> T run(Callable<T> task) {
+		Future<T> future;
+		try {
+			future = executor.submit(task);
+		} catch (RejectedExecutionException ex) {
+			logger.warn("Password hashing queue is full, rejecting request");
+			throw new AuthenticationServiceException("Password hashing is busy. Please try again", ex);
+		}
+		try {
+			return future.get();
+		} catch (InterruptedException ex) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while hashing password", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			throw new IllegalStateException("Password hashing failed", ex.getCause());
+		}
+	}
+}
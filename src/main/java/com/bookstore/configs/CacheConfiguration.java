@@ -0,0 +1,76 @@
+package com.bookstore.configs;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Class to enable the read through data caches.
+ * The cache provider, size and expiry come from the spring.cache properties.
+ * Cache changes made in a transaction are applied after it commits.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+	private static final Logger logger = LogManager.getLogger(CacheConfiguration.class);
+
+	/**
+	 * Books keyed by id
+	 */
+	public static final String BOOKS = "books";
+	/**
+	 * Book lists keyed by owner id
+	 */
+	public static final String BOOKS_BY_OWNER = "booksByOwner";
+	/**
+	 * Whole book list
+	 */
+	public static final String BOOK_LIST = "bookList";
+	/**
+	 * Book listing pages joined with owner names
+	 */
+	public static final String BOOK_LISTINGS = "bookListings";
+	/**
+	 * User ids keyed by user name
+	 */
+	public static final String USER_IDS = "userIds";
+	/**
+	 * User names keyed by user id
+	 */
+	public static final String USER_NAMES = "userNames";
+	/**
+	 * Dashboards keyed by user id, session and dashboard version
+	 */
+	public static final String DASHBOARDS = "dashboards";
+
+	/**
+	 * Create cache config object
+	 */
+	public CacheConfiguration() {
+		logger.info("Cache configuration class initialized.");
+	}
+
+	/**
+	 * Makes the cache manager transaction aware. Puts and evictions made inside a transaction
+	 * run after it commits, so a reader can not cache rows the transaction is still changing.
+	 * 
+	 * @return post processor
+	 */
+	@Bean
+	public static BeanPostProcessor transactionAwareCacheManagerPostProcessor() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof CacheManager cacheManager && !(bean instanceof TransactionAwareCacheManagerProxy)) {
+					return new TransactionAwareCacheManagerProxy(cacheManager);
+				}
+				return bean;
+			}
+		};
+	}
+}
@@ -0,0 +1,40 @@
+package com.bookstore.configs;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.db.AbstractDatabaseAppender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the buffered rows of the JDBC log appender at a fixed interval.
+ * The appender itself only writes when its buffer is full, so on a quiet node
+ * errors would otherwise wait for the next bufferSize events or for shutdown.
+ */
+@Component
+public class DatabaseLogFlusher {
+
+	/**
+	 * Name of the JDBC appender in log4j2.xml
+	 */
+	public static final String APPENDER_NAME = "DatabaseAppender";
+
+	/**
+	 * Create database log flusher
+	 */
+	public DatabaseLogFlusher() {
+
+	}
+
+	/**
+	 * Insert the rows waiting in the appender buffer
+	 */
+	@Scheduled(fixedDelayString = "${bookstore.log.db-flush-interval:5000}")
+	public void flush() {
+		// Looked up each time, a log4j reconfiguration replaces the appender
+		if (LogManager.getContext(false) instanceof LoggerContext context
+				&& context.getConfiguration().getAppender(APPENDER_NAME) instanceof AbstractDatabaseAppender<?> appender) {
+			appender.getManager().flush();
+		}
+	}
+}
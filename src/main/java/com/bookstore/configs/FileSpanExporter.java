@@ -0,0 +1,57 @@
+package com.bookstore.configs;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.StringMapMessage;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Span exporter that writes one line per finished span through the com.bookstore.spans logger.
+ * log4j2.xml sends that logger to logs/spans.log only.
+ */
+public class FileSpanExporter implements SpanExporter {
+	private static final Logger spanLogger = LogManager.getLogger("com.bookstore.spans");
+
+	/**
+	 * Create file span exporter
+	 */
+	public FileSpanExporter() {
+
+	}
+
+	@Override
+	public CompletableResultCode export(Collection<SpanData> batch) {
+		if (!spanLogger.isInfoEnabled()) {
+			return CompletableResultCode.ofSuccess();
+		}
+
+		for (var span : batch) {
+			var event = new StringMapMessage()
+					.with("traceId", span.getTraceId())
+					.with("spanId", span.getSpanId())
+					.with("parentId", span.getParentSpanId())
+					.with("name", span.getName())
+					.with("durationMicros", TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()))
+					.with("status", span.getStatus().getStatusCode().name());
+			span.getAttributes().forEach((key, value) -> event.with(key.getKey(), String.valueOf(value)));
+			spanLogger.info(event);
+		}
+		return CompletableResultCode.ofSuccess();
+	}
+
+	@Override
+	public CompletableResultCode flush() {
+		return CompletableResultCode.ofSuccess();
+	}
+
+	@Override
+	public CompletableResultCode shutdown() {
+		return CompletableResultCode.ofSuccess();
+	}
+}
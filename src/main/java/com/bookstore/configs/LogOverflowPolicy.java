@@ -0,0 +1,60 @@
+package com.bookstore.configs;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.async.AsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.EventRoute;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * What the asynchronous log appenders do when their queue is full.
+ * Set by bookstore.log.overflow in log4j2.component.properties or as a system property:
+ * block waits for room, drop-debug drops DEBUG and TRACE events and waits for the rest,
+ * drop-all drops any event that does not fit. Dropped events are counted.
+ * Log4j creates this class itself, see log4j2.AsyncQueueFullPolicy.
+ */
+public class LogOverflowPolicy implements AsyncQueueFullPolicy {
+
+	/**
+	 * Overflow property name
+	 */
+	public static final String OVERFLOW_PROPERTY = "bookstore.log.overflow";
+
+	private static final LongAdder dropped = new LongAdder();
+
+	private final Level dropLevel; // Events at this level or less severe are dropped, null to block
+
+	/**
+	 * Create log overflow policy from the overflow property
+	 */
+	public LogOverflowPolicy() {
+		var mode = PropertiesUtil.getProperties().getStringProperty(OVERFLOW_PROPERTY, "drop-debug");
+		dropLevel = switch (mode) {
+		case "block" -> null;
+		case "drop-all" -> Level.FATAL;
+		default -> Level.DEBUG;
+		};
+	}
+
+	@Override
+	public EventRoute getRoute(long backgroundThreadId, Level level) {
+		// Logging from the consumer thread itself must not wait on its own queue
+		if (Thread.currentThread().threadId() == backgroundThreadId) {
+			return EventRoute.SYNCHRONOUS;
+		}
+		if (dropLevel != null && level.isLessSpecificThan(dropLevel)) {
+			dropped.increment();
+			return EventRoute.DISCARD;
+		}
+		return EventRoute.ENQUEUE;
+	}
+
+	/**
+	 * Get the number of events dropped since start
+	 * @return count
+	 */
+	public static long getDroppedCount() {
+		return dropped.sum();
+	}
+}
@@ -0,0 +1,145 @@
+package com.bookstore.configs;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Token buckets for login attempts, one per user name and one per client address.
+ * Buckets are single atomic values updated without locks and are dropped after they sit idle.
+ */
+@Component
+public class LoginThrottle {
+	private static final Logger logger = LogManager.getLogger(LoginThrottle.class);
+
+	private final Cache<String, Bucket> userBuckets;
+	private final Cache<String, Bucket> addressBuckets;
+	private final long userCapacity;
+	private final long userInterval;
+	private final long addressCapacity;
+	private final long addressInterval;
+
+	private final LongAdder allowed = new LongAdder();
+	private final LongAdder rejectedByUser = new LongAdder();
+	private final LongAdder rejectedByAddress = new LongAdder();
+
+	/**
+	 * Token bucket kept as the time its next token is due.
+	 * An attempt is allowed while that time is no more than capacity tokens ahead of now.
+	 */
+	private static class Bucket {
+		private final AtomicLong due;
+
+		private Bucket(long now) {
+			due = new AtomicLong(now);
+		}
+
+		private boolean tryTake(long now, long capacity, long interval) {
+			while (true) {
+				var current = due.get();
+				var start = Math.max(current, now);
+				if (start - now > (capacity - 1) * interval) {
+					return false;
+				}
+				if (due.compareAndSet(current, start + interval)) {
+					return true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Create login throttle
+	 * @param userCapacity attempts a user name may burst
+	 * @param userRefill time to earn back one attempt for a user name
+	 * @param addressCapacity attempts a client address may burst
+	 * @param addressRefill time to earn back one attempt for a client address
+	 * @param idleTimeout how long an unused bucket is kept
+	 * @param maxBuckets upper bound of buckets of each kind
+	 */
+	public LoginThrottle(@Value("${bookstore.login.throttle.user-capacity:5}") long userCapacity,
+			@Value("${bookstore.login.throttle.user-refill:12s}") Duration userRefill,
+			@Value("${bookstore.login.throttle.address-capacity:20}") long addressCapacity,
+			@Value("${bookstore.login.throttle.address-refill:3s}") Duration addressRefill,
+			@Value("${bookstore.login.throttle.idle-timeout:10m}") Duration idleTimeout,
+			@Value("${bookstore.login.throttle.max-buckets:100000}") long maxBuckets) {
+		this.userCapacity = userCapacity;
+		this.userInterval = userRefill.toNanos();
+		this.addressCapacity = addressCapacity;
+		this.addressInterval = addressRefill.toNanos();
+		this.userBuckets = Caffeine.newBuilder().expireAfterAccess(idleTimeout).maximumSize(maxBuckets).build();
+		this.addressBuckets = Caffeine.newBuilder().expireAfterAccess(idleTimeout).maximumSize(maxBuckets).build();
+		logger.info("Login throttle: {} per user every {}, {} per address every {}", userCapacity, userRefill,
+				addressCapacity, addressRefill);
+	}
+
+	/**
+	 * Take one login attempt for the user name and client address
+	 * @param userName user name, may be null
+	 * @param address client address
+	 * @return true if the attempt may go ahead
+	 */
+	public boolean tryAcquire(String userName, String address) {
+		var now = System.nanoTime();
+		var addressBucket = addressBuckets.get(address, key -> new Bucket(now));
+		if (!addressBucket.tryTake(now, addressCapacity, addressInterval)) {
+			rejectedByAddress.increment();
+			logger.warn("Login attempt throttled for address: {}", address);
+			return false;
+		}
+
+		if (userName != null && !userName.isEmpty()) {
+			// Names are case sensitive in the store, but attackers should not get extra buckets by changing case
+			var userBucket = userBuckets.get(userName.toLowerCase(), key -> new Bucket(now));
+			if (!userBucket.tryTake(now, userCapacity, userInterval)) {
+				rejectedByUser.increment();
+				logger.warn("Login attempt throttled for user: {}", userName);
+				return false;
+			}
+		}
+		allowed.increment();
+		return true;
+	}
+
+	/**
+	 * Get allowed attempts
+	 * @return count
+	 */
+	public long getAllowed() {
+		return allowed.sum();
+	}
+
+	/**
+	 * Get attempts rejected by the user name bucket
+	 * @return count
+	 */
+	public long getRejectedByUser() {
+		return rejectedByUser.sum();
+	}
+
+	/**
+	 * Get attempts rejected by the client address bucket
+	 * @return count
+	 */
+	public long getRejectedByAddress() {
+		return rejectedByAddress.sum();
+	}
+
+	/**
+	 * Get the number of live buckets
+	 * @return user and address buckets
+	 */
+	public long getBucketCount() {
+		userBuckets.cleanUp();
+		addressBuckets.cleanUp();
+		return userBuckets.estimatedSize() + addressBuckets.estimatedSize();
+	}
+}
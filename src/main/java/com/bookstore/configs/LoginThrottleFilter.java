@@ -0,0 +1,51 @@
+package com.bookstore.configs;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Checks the login throttle before the form login filter, so a rejected attempt
+ * costs no user lookup and no password hash.
+ * Created by the security configuration only, so it is not registered as a servlet filter as well.
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+	private final LoginThrottle throttle;
+	private final String loginUrl;
+	private final String throttledUrl;
+
+	/**
+	 * Create login throttle filter
+	 * @param throttle login throttle
+	 * @param loginUrl login processing url
+	 * @param throttledUrl page to redirect rejected attempts to
+	 */
+	public LoginThrottleFilter(LoginThrottle throttle, String loginUrl, String throttledUrl) {
+		this.throttle = throttle;
+		this.loginUrl = loginUrl;
+		this.throttledUrl = throttledUrl;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !HttpMethod.POST.matches(request.getMethod())
+				|| !loginUrl.equals(request.getRequestURI().substring(request.getContextPath().length()));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		// The remote address is the forwarded client address when the peer is a trusted proxy
+		if (!throttle.tryAcquire(request.getParameter("username"), request.getRemoteAddr())) {
+			response.sendRedirect(request.getContextPath() + throttledUrl);
+			return;
+		}
+		filterChain.doFilter(request, response);
+	}
+}
@@ -0,0 +1,102 @@
+package com.bookstore.configs;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.bookstore.business.UserSessionService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Class to publish the saturation of the application's own pools and queues.
+ * Connection pool, cache, JVM and Tomcat metrics come from Spring Boot actuator.
+ * Everything is scraped from /actuator/prometheus on the management port.
+ */
+@Configuration
+public class MetricsConfiguration {
+	private static final Logger logger = LogManager.getLogger(MetricsConfiguration.class);
+
+	/**
+	 * Create metrics config object
+	 */
+	public MetricsConfiguration() {
+		logger.info("Metrics configuration class initialized.");
+	}
+
+	/**
+	 * Active threads, queue depth and rejections of the password hashing pool
+	 * @param encoder password encoder
+	 * @return binder
+	 */
+	@Bean
+	public MeterBinder passwordHashMetrics(PasswordEncoder encoder) {
+		return registry -> {
+			if (encoder instanceof BoundedPasswordEncoder bounded) {
+				new ExecutorServiceMetrics(bounded.getExecutor(), "passwordHash", Tags.empty()).bindTo(registry);
+			}
+		};
+	}
+
+	/**
+	 * Sessions waiting for a background dashboard rebuild
+	 * @param userSession session service
+	 * @return binder
+	 */
+	@Bean
+	public MeterBinder dashboardRefreshMetrics(UserSessionService userSession) {
+		return registry -> Gauge.builder("bookstore.dashboard.refresh.pending", userSession, UserSessionService::getPendingRefreshCount)
+				.description("Sessions with a dashboard rebuild queued or running")
+				.register(registry);
+	}
+
+	/**
+	 * Login attempts allowed and rejected by the throttle, and its live buckets
+	 * @param throttle login throttle
+	 * @return binder
+	 */
+	@Bean
+	public MeterBinder loginThrottleMetrics(LoginThrottle throttle) {
+		return registry -> {
+			FunctionCounter.builder("bookstore.login.attempts", throttle, LoginThrottle::getAllowed)
+					.tag("outcome", "allowed").register(registry);
+			FunctionCounter.builder("bookstore.login.attempts", throttle, LoginThrottle::getRejectedByUser)
+					.tag("outcome", "rejected_user").register(registry);
+			FunctionCounter.builder("bookstore.login.attempts", throttle, LoginThrottle::getRejectedByAddress)
+					.tag("outcome", "rejected_address").register(registry);
+			Gauge.builder("bookstore.login.buckets", throttle, LoginThrottle::getBucketCount)
+					.description("Live user and address buckets of the login throttle").register(registry);
+		};
+	}
+
+	/**
+	 * Queue depth and capacity of the asynchronous log appenders and events they dropped
+	 * @return binder
+	 */
+	@Bean
+	public MeterBinder logPipelineMetrics() {
+		return registry -> {
+			if (LogManager.getContext(false) instanceof LoggerContext context) {
+				for (var appender : context.getConfiguration().getAppenders().values()) {
+					if (appender instanceof AsyncAppender async) {
+						Gauge.builder("bookstore.log.queue.depth", async, a -> a.getQueueCapacity() - a.getQueueRemainingCapacity())
+								.tag("appender", async.getName()).register(registry);
+						Gauge.builder("bookstore.log.queue.capacity", async, AsyncAppender::getQueueCapacity)
+								.tag("appender", async.getName()).register(registry);
+					}
+				}
+			}
+			FunctionCounter.builder("bookstore.log.dropped", LogOverflowPolicy.class, c -> LogOverflowPolicy.getDroppedCount())
+					.description("Log events dropped because an appender queue was full")
+					.register(registry);
+		};
+	}
+}
@@ -0,0 +1,66 @@
+package com.bookstore.configs;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Span exporter that keeps the latest finished spans in memory, so traces can be
+ * read from /actuator/spans on the management port without an external collector.
+ */
+public class RecentSpanExporter implements SpanExporter {
+
+	private final int capacity;
+	private final ArrayDeque<SpanData> spans;
+
+	/**
+	 * Create recent span exporter
+	 * @param capacity spans kept, the oldest are dropped first
+	 */
+	public RecentSpanExporter(int capacity) {
+		this.capacity = Math.max(capacity, 1);
+		this.spans = new ArrayDeque<>(this.capacity);
+	}
+
+	@Override
+	public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+		for (var span : batch) {
+			if (spans.size() == capacity) {
+				spans.removeFirst();
+			}
+			spans.addLast(span);
+		}
+		return CompletableResultCode.ofSuccess();
+	}
+
+	/**
+	 * Get the kept spans, oldest first
+	 * @param traceId only spans of this trace, null for all
+	 * @return spans
+	 */
+	public synchronized List<SpanData> getSpans(String traceId) {
+		var result = new ArrayList<SpanData>(spans.size());
+		for (var span : spans) {
+			if (traceId == null || traceId.equals(span.getTraceId())) {
+				result.add(span);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public CompletableResultCode flush() {
+		return CompletableResultCode.ofSuccess();
+	}
+
+	@Override
+	public synchronized CompletableResultCode shutdown() {
+		spans.clear();
+		return CompletableResultCode.ofSuccess();
+	}
+}
@@ -0,0 +1,50 @@
+package com.bookstore.configs;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint to read and change the share of requests that log a summary event.
+ * It is served on the management port only, so application users cannot change it.
+ */
+@Component
+@Endpoint(id = "requestsampling")
+public class RequestSamplingEndpoint {
+	private static final Logger logger = LogManager.getLogger(RequestSamplingEndpoint.class);
+
+	@Autowired
+	private RequestSummaryFilter requestSummaryFilter;
+
+	/**
+	 * Create request sampling endpoint
+	 */
+	public RequestSamplingEndpoint() {
+
+	}
+
+	/**
+	 * Get the sampling rate in use
+	 * @return share of requests, 0 to 1
+	 */
+	@ReadOperation
+	public double getRate() {
+		return requestSummaryFilter.getSampleRate();
+	}
+
+	/**
+	 * Set the share of ordinary requests that log a summary event. Failed and slow requests are always logged
+	 * @param rate share of requests, 0 to 1
+	 * @return rate in use
+	 */
+	@WriteOperation
+	public double setRate(double rate) {
+		requestSummaryFilter.setSampleRate(rate);
+		logger.info("Request summary sampling set to {}", requestSummaryFilter.getSampleRate());
+		return requestSummaryFilter.getSampleRate();
+	}
+}
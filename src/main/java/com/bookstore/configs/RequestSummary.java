@@ -0,0 +1,153 @@
+package com.bookstore.configs;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Facts about the current request, collected on its thread and logged once when it ends.
+ * Calls outside a request (background threads, startup) are not recorded.
+ */
+public final class RequestSummary {
+	private static final ThreadLocal<RequestSummary> current = new ThreadLocal<>();
+
+	/**
+	 * Application layers timed separately
+	 */
+	public enum Layer {
+		/** Business services */
+		BUSINESS,
+		/** Data services */
+		DATA
+	}
+
+	private final long start = System.nanoTime();
+	private final long[] layerNanos = new long[Layer.values().length];
+	private final int[] depth = new int[Layer.values().length];
+	private String user;
+	private long dataCalls;
+	private long rows;
+
+	private RequestSummary() {
+	}
+
+	/**
+	 * Start collecting for the request on this thread
+	 * @return summary
+	 */
+	static RequestSummary begin() {
+		var summary = new RequestSummary();
+		current.set(summary);
+		return summary;
+	}
+
+	/**
+	 * Stop collecting on this thread
+	 */
+	static void end() {
+		current.remove();
+	}
+
+	/**
+	 * Record the user of the current request
+	 * @param userName user name
+	 */
+	public static void setUser(String userName) {
+		var summary = current.get();
+		if (summary != null) {
+			summary.user = userName;
+		}
+	}
+
+	/**
+	 * Enter a layer call. Nested calls within the same layer are only counted once
+	 * @param layer layer
+	 * @return true when this is the outermost call of the layer in the request
+	 */
+	static boolean enter(Layer layer) {
+		var summary = current.get();
+		return summary != null && summary.depth[layer.ordinal()]++ == 0;
+	}
+
+	/**
+	 * Leave a layer call entered with {@link #enter(Layer)} and add its time
+	 * @param layer layer
+	 * @param outer value returned by enter
+	 * @param nanos duration of the call
+	 * @param result call result, null when it failed
+	 */
+	static void exit(Layer layer, boolean outer, long nanos, Object result) {
+		var summary = current.get();
+		if (summary == null) {
+			return;
+		}
+
+		var index = layer.ordinal();
+		summary.depth[index]--;
+		if (outer) {
+			summary.layerNanos[index] += nanos;
+			if (layer == Layer.DATA) {
+				summary.dataCalls++;
+				summary.rows += countRows(result);
+			}
+		}
+	}
+
+	/**
+	 * Count the rows a data call returned
+	 * @param result call result
+	 * @return rows
+	 */
+	private static long countRows(Object result) {
+		if (result == null || result instanceof Boolean || result instanceof Number) {
+			return 0;
+		}
+		if (result instanceof Collection<?> collection) {
+			return collection.size();
+		}
+		if (result instanceof Optional<?> optional) {
+			return optional.isPresent() ? 1 : 0;
+		}
+		return 1;
+	}
+
+	/**
+	 * Get user name, null for anonymous requests
+	 * @return user
+	 */
+	public String getUser() {
+		return user;
+	}
+
+	/**
+	 * Get milliseconds since the request started
+	 * @return duration
+	 */
+	public long getElapsedMillis() {
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+
+	/**
+	 * Get milliseconds spent in a layer
+	 * @param layer layer
+	 * @return duration
+	 */
+	public long getLayerMillis(Layer layer) {
+		return layerNanos[layer.ordinal()] / 1_000_000;
+	}
+
+	/**
+	 * Get data service calls
+	 * @return count
+	 */
+	public long getDataCalls() {
+		return dataCalls;
+	}
+
+	/**
+	 * Get rows returned by data service calls
+	 * @return count
+	 */
+	public long getRows() {
+		return rows;
+	}
+}
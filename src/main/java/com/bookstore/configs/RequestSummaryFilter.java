@@ -0,0 +1,123 @@
+package com.bookstore.configs;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.StringMapMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Logs one structured event per request with user, endpoint, status, data calls, rows,
+ * SQL statements and time per layer. Failed and slow requests are always logged, the rest are sampled.
+ * Requests over the SQL statement budget or repeating a statement are always warned about.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestSummaryFilter extends OncePerRequestFilter {
+	private static final Logger summaryLogger = LogManager.getLogger("com.bookstore.request");
+
+	private volatile double sampleRate;
+	private final long slowMillis;
+	private final int statementBudget;
+	private final int repeatThreshold;
+
+	/**
+	 * Create request summary filter
+	 * @param sampleRate share of ordinary requests to log, 0 to 1
+	 * @param slowThreshold requests at least this long are always logged
+	 * @param statementBudget SQL statements a request may run before a warning
+	 * @param repeatThreshold executions of the same SQL in one request reported as a possible N+1
+	 */
+	public RequestSummaryFilter(@Value("${bookstore.log.request-sample-rate:1.0}") double sampleRate,
+			@Value("${bookstore.log.slow-request:1s}") Duration slowThreshold,
+			@Value("${bookstore.sql.statement-budget:20}") int statementBudget,
+			@Value("${bookstore.sql.repeat-threshold:5}") int repeatThreshold) {
+		setSampleRate(sampleRate);
+		this.slowMillis = slowThreshold.toMillis();
+		this.statementBudget = statementBudget;
+		this.repeatThreshold = repeatThreshold;
+	}
+
+	/**
+	 * Get share of ordinary requests logged
+	 * @return rate
+	 */
+	public double getSampleRate() {
+		return sampleRate;
+	}
+
+	/**
+	 * Change the share of ordinary requests logged while running
+	 * @param sampleRate rate, limited to 0 to 1
+	 */
+	public void setSampleRate(double sampleRate) {
+		this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		// Static resources have nothing worth summarizing
+		var path = request.getRequestURI().substring(request.getContextPath().length());
+		return path.startsWith("/images/") || path.startsWith("/styles/");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		var summary = RequestSummary.begin();
+		var sql = SqlStatementCounter.open();
+		var failed = false;
+		try {
+			filterChain.doFilter(request, response);
+		} catch (ServletException | IOException | RuntimeException ex) {
+			failed = true;
+			throw ex;
+		} finally {
+			RequestSummary.end();
+			sql.close();
+			checkStatements(request, sql);
+			var status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+			var elapsed = summary.getElapsedMillis();
+			if (status >= 500 || elapsed >= slowMillis || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+				summaryLogger.info(new StringMapMessage()
+						.with("method", request.getMethod())
+						.with("path", request.getRequestURI())
+						.with("status", String.valueOf(status))
+						.with("user", summary.getUser() != null ? summary.getUser() : "-")
+						.with("durationMs", String.valueOf(elapsed))
+						.with("businessMs", String.valueOf(summary.getLayerMillis(RequestSummary.Layer.BUSINESS)))
+						.with("dataMs", String.valueOf(summary.getLayerMillis(RequestSummary.Layer.DATA)))
+						.with("dataCalls", String.valueOf(summary.getDataCalls()))
+						.with("rows", String.valueOf(summary.getRows()))
+						.with("statements", String.valueOf(sql.getStatements()))
+						.with("sqlRows", String.valueOf(sql.getRows())));
+			}
+		}
+	}
+
+	/**
+	 * Warn when a request runs more statements than its budget or repeats one statement many times
+	 * @param request request
+	 * @param sql statements of the request
+	 */
+	private void checkStatements(HttpServletRequest request, SqlStatementCounter.Scope sql) {
+		if (sql.getStatements() > statementBudget) {
+			summaryLogger.warn("{} {} ran {} SQL statements, budget is {}", request.getMethod(), request.getRequestURI(),
+					sql.getStatements(), statementBudget);
+		}
+		sql.getRepeatedStatements(repeatThreshold).forEach((text, count) -> summaryLogger
+				.warn("Possible N+1 in {} {}: {} times {}", request.getMethod(), request.getRequestURI(), count, text));
+	}
+}
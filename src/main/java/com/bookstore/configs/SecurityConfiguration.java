@@ -4,15 +4,25 @@ import jakarta.annotation.PostConstruct;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.NullSecurityContextRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
 
 /**
  * Class to control Spring security configuration
@@ -24,9 +34,18 @@ public class SecurityConfiguration {
 	
 	@Autowired
 	private UserDetailsService service; // User management for lookup
-	
-	// Encryption object
-	private BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+
+	@Autowired
+	private SessionStoreSecurityContextRepository sessionRepository; // Logged in sessions
+
+	@Autowired
+	private LoginThrottle loginThrottle; // Login attempt limits
+
+	@Autowired
+	private ApiTokenService apiTokenService; // REST API bearer tokens
+
+	@Value("${management.server.port:-1}")
+	private int managementPort; // Actuator port, reachable from the monitoring network only
 	
 	/**
 	 * Create security config object
@@ -34,10 +53,83 @@ public class SecurityConfiguration {
 	public SecurityConfiguration() {
 		
 	}
+	/**
+	 * The one password encoder of the application, shared by login, signup and account edits.
+	 * @param strength BCrypt work factor
+	 * @param threads hashing threads, zero for one per core
+	 * @param queueSize hashes allowed to wait for a thread
+	 * @return encoder
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public PasswordEncoder passwordEncoder(@Value("${bookstore.security.bcrypt-strength:10}") int strength,
+			@Value("${bookstore.security.hash-threads:0}") int threads,
+			@Value("${bookstore.security.hash-queue:200}") int queueSize) {
+		return new BoundedPasswordEncoder(strength, threads, queueSize);
+	}
+	/**
+	 * Configures the security filter chain of the actuator port. Metrics and health are
+	 * served on their own port bound to the monitoring network, so nothing on it is
+	 * reachable from the application port and no user session is involved.
+	 * @param http security object
+	 * @return filter chain
+	 * @throws Exception error
+	 */
+    @Bean
+    @Order(0)
+    public SecurityFilterChain managementSecurityFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher(request -> managementPort > 0 && request.getLocalPort() == managementPort)
+                .csrf(csrf -> csrf.disable())
+                .securityContext(context -> context.securityContextRepository(new NullSecurityContextRepository()))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                .authorizeHttpRequests(requests -> requests.anyRequest().permitAll());
+
+      return http.build();
+    }
+
+	/**
+	 * Configures the security filter chain of the REST API. Calls carry a signed bearer token,
+	 * so this chain never creates or looks up a session.
+	 * @param http security object
+	 * @return filter chain
+	 * @throws Exception error
+	 */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher("/api/bookservice/**")
+                .csrf(csrf -> csrf.disable())
+                .securityContext(context -> context.securityContextRepository(new NullSecurityContextRepository()))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                .addFilterBefore(new ApiTokenAuthenticationFilter(apiTokenService), UsernamePasswordAuthenticationFilter.class)
+                .authorizeHttpRequests(requests -> requests.anyRequest().authenticated())
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
+
+      return http.build();
+    }
+
+	/**
+	 * Keeps images and styles out of the security filter chains. They are public and
+	 * are requested with every page, so they skip the security work entirely.
+	 * @return customizer
+	 */
+	@Bean
+	public WebSecurityCustomizer staticResourcesCustomizer() {
+		return web -> web.ignoring().requestMatchers(StaticResourceConfiguration.STATIC_PATHS);
+	}
+
+	/**
+	 * Exposes the authentication manager so the API can exchange a password for a token.
+	 * @param configuration authentication configuration
+	 * @return authentication manager
+	 * @throws Exception error
+	 */
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
+		return configuration.getAuthenticationManager();
 	}
+
 	/**
 	 * Configures the security filter chain for Form based HTTP authentication.
 	 * @param http security object
@@ -45,12 +137,21 @@ public class SecurityConfiguration {
 	 * @throws Exception error
 	 */
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 		logger.info("Custom Security Configuration is applied!");
         System.out.println("Custom Security Configuration is applied!");
 
-        http.csrf(csrf -> csrf.disable()).authorizeHttpRequests(requests -> requests
-                .requestMatchers("/","/images/**","/styles/**", "/signUp/**", "/about").permitAll() // Avoid home, images, and signUp pages
+        // Logged in users live in the session store, so no servlet session is needed on any node
+        http.csrf(csrf -> csrf.disable())
+                .securityContext(context -> context.securityContextRepository(sessionRepository))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                // Throttled attempts are turned away before any user lookup or password hash
+                .addFilterBefore(new LoginThrottleFilter(loginThrottle, "/login", "/login-throttled"),
+                        UsernamePasswordAuthenticationFilter.class)
+                .authorizeHttpRequests(requests -> requests
+                .requestMatchers("/", "/signUp/**", "/about", "/login-throttled", "/api/auth/token").permitAll() // Public pages and token exchange
                 .anyRequest().authenticated())
         
                 .formLogin(login -> login.loginPage("/login")
@@ -61,6 +162,7 @@ public class SecurityConfiguration {
                         .defaultSuccessUrl("/login-success", true)) // Redirect to login success
                .logout(logout -> logout
                         .logoutUrl("/logout")
+                        .addLogoutHandler(sessionRepository)
                         .invalidateHttpSession(true)
                         .clearAuthentication(true)
                         .permitAll()
@@ -75,7 +177,8 @@ public class SecurityConfiguration {
      * @throws Exception error
      */
     @Autowired
-    public void configureGlobal(AuthenticationManagerBuilder auth) throws Exception {
+    public void configureGlobal(AuthenticationManagerBuilder auth, PasswordEncoder encoder) throws Exception {
+      // The user service also stores upgraded hashes, so old work factors are rehashed on login
       auth.userDetailsService(service)
               .passwordEncoder(encoder);
     }
@@ -0,0 +1,202 @@
+package com.bookstore.configs;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * The one interception point of controller, service and repository calls. Each call is
+ * wrapped once and feeds the request summary, the call timers and the trace spans.
+ * Timer percentiles are computed in process over a rolling window, so memory stays bounded.
+ * Spans are opened for controller actions and business interface calls only.
+ * SQL statement spans come from StatementCountingDataSource.
+ */
+@Aspect
+@Component
+public class ServiceCallAspect {
+
+	/**
+	 * Intercepted layers and what is recorded for each
+	 */
+	private enum Layer {
+		CONTROLLER("controller", null, false),
+		BUSINESS("business", RequestSummary.Layer.BUSINESS, true),
+		DATA("data", RequestSummary.Layer.DATA, true),
+		REPOSITORY("repository", null, true);
+
+		private final String tag;
+		private final RequestSummary.Layer summary;
+		private final boolean timed;
+
+		Layer(String tag, RequestSummary.Layer summary, boolean timed) {
+			this.tag = tag;
+			this.summary = summary;
+			this.timed = timed;
+		}
+	}
+
+	@Autowired
+	private MeterRegistry meters;
+
+	@Autowired
+	private ObservationRegistry observations;
+
+	private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, Counter> rowCounters = new ConcurrentHashMap<>();
+
+	/**
+	 * Create service call aspect
+	 */
+	public ServiceCallAspect() {
+
+	}
+
+	/**
+	 * Intercept controller actions
+	 * @param call call
+	 * @return call result
+	 * @throws Throwable error of the call
+	 */
+	@Around("execution(public * com.bookstore.controllers.*.*(..)) || execution(public * com.bookstore.api.*.*(..))")
+	public Object controllerCall(ProceedingJoinPoint call) throws Throwable {
+		return intercept(Layer.CONTROLLER, true, ClassUtils.getUserClass(call.getTarget()).getSimpleName(), call);
+	}
+
+	/**
+	 * Intercept business interface calls
+	 * @param call call
+	 * @return call result
+	 * @throws Throwable error of the call
+	 */
+	@Around("execution(* com.bookstore.business.*Interface.*(..))")
+	public Object businessCall(ProceedingJoinPoint call) throws Throwable {
+		return intercept(Layer.BUSINESS, true, ClassUtils.getUserClass(call.getTarget()).getSimpleName(), call);
+	}
+
+	/**
+	 * Intercept the other public business service methods, timed but not traced
+	 * @param call call
+	 * @return call result
+	 * @throws Throwable error of the call
+	 */
+	@Around("execution(public * com.bookstore.business.*.*(..)) && !execution(* com.bookstore.business.*Interface.*(..))")
+	public Object businessServiceCall(ProceedingJoinPoint call) throws Throwable {
+		return intercept(Layer.BUSINESS, false, ClassUtils.getUserClass(call.getTarget()).getSimpleName(), call);
+	}
+
+	/**
+	 * Intercept data service calls
+	 * @param call call
+	 * @return call result
+	 * @throws Throwable error of the call
+	 */
+	@Around("execution(public * com.bookstore.data.*.*(..))")
+	public Object dataCall(ProceedingJoinPoint call) throws Throwable {
+		return intercept(Layer.DATA, false, ClassUtils.getUserClass(call.getTarget()).getSimpleName(), call);
+	}
+
+	/**
+	 * Intercept repository calls
+	 * @param call call
+	 * @return call result
+	 * @throws Throwable error of the call
+	 */
+	@Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+	public Object repositoryCall(ProceedingJoinPoint call) throws Throwable {
+		return intercept(Layer.REPOSITORY, false, repositoryName(call.getThis()), call);
+	}
+
+	/**
+	 * Run a call once, timing it for its layer, inside its span when traced
+	 * @param layer layer
+	 * @param traced open a span for the call
+	 * @param owner class tag
+	 * @param call call
+	 * @return call result
+	 * @throws Throwable error of the call
+	 */
+	private Object intercept(Layer layer, boolean traced, String owner, ProceedingJoinPoint call) throws Throwable {
+		var method = call.getSignature().getName();
+		var timer = layer.timed ? timer(layer, owner, method) : null;
+		var observation = traced && !observations.isNoop()
+				? Observation.createNotStarted("bookstore." + layer.tag, observations)
+						.contextualName(owner + "." + method)
+						.lowCardinalityKeyValue("class", owner)
+						.lowCardinalityKeyValue("method", method)
+						.start()
+				: null;
+		var outer = layer.summary != null && RequestSummary.enter(layer.summary);
+
+		Object result = null;
+		var start = System.nanoTime();
+		try (var scope = observation != null ? observation.openScope() : null) {
+			result = call.proceed();
+			if (layer.timed && "findAll".equals(method) && result instanceof Collection<?> rows) {
+				rowCounters.computeIfAbsent(owner + "." + method, k -> Counter.builder("bookstore.findall.rows")
+						.description("Rows materialized by findAll")
+						.tag("layer", layer.tag).tag("class", owner)
+						.register(meters)).increment(rows.size());
+			}
+			return result;
+		} catch (Throwable ex) {
+			if (observation != null) {
+				observation.error(ex);
+			}
+			throw ex;
+		} finally {
+			var nanos = System.nanoTime() - start;
+			if (timer != null) {
+				timer.record(nanos, TimeUnit.NANOSECONDS);
+			}
+			if (layer.summary != null) {
+				RequestSummary.exit(layer.summary, outer, nanos, result);
+			}
+			if (observation != null) {
+				observation.stop();
+			}
+		}
+	}
+
+	/**
+	 * Get the timer of a call site
+	 * @param layer layer
+	 * @param owner class tag
+	 * @param method method tag
+	 * @return timer
+	 */
+	private Timer timer(Layer layer, String owner, String method) {
+		return timers.computeIfAbsent(owner + "." + method, k -> Timer.builder("bookstore.calls")
+				.description("Service, data and repository calls")
+				.tag("layer", layer.tag).tag("class", owner).tag("method", method)
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(meters));
+	}
+
+	/**
+	 * Find the application repository interface behind a repository proxy
+	 * @param proxy repository proxy
+	 * @return interface name
+	 */
+	private String repositoryName(Object proxy) {
+		for (var type : ClassUtils.getAllInterfaces(proxy)) {
+			if (Repository.class.isAssignableFrom(type) && type.getName().startsWith("com.bookstore.")) {
+				return type.getSimpleName();
+			}
+		}
+		return ClassUtils.getUserClass(proxy).getSimpleName();
+	}
+}
@@ -0,0 +1,222 @@
+package com.bookstore.configs;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.stereotype.Component;
+
+import com.bookstore.business.BookStoreUser;
+import com.bookstore.data.SessionStoreInterface;
+import com.bookstore.data.UserDataService;
+import com.bookstore.data.entity.SessionEntity;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps the logged in user in the session store instead of the servlet session.
+ * The browser holds a random token cookie and every node can rebuild the security context from it.
+ */
+@Component
+public class SessionStoreSecurityContextRepository implements SecurityContextRepository, LogoutHandler {
+	private static final Logger logger = LogManager.getLogger(SessionStoreSecurityContextRepository.class);
+
+	/**
+	 * Name of the session token cookie
+	 */
+	public static final String COOKIE_NAME = "BOOKSTORE_SESSION";
+
+	/**
+	 * Request attribute holding the loaded session record
+	 */
+	public static final String SESSION_ATTRIBUTE = SessionStoreSecurityContextRepository.class.getName() + ".SESSION";
+
+	private static final long TOUCH_INTERVAL = 60_000; // Write last access at most once a minute
+	private static final List<GrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("USER"));
+
+	@Autowired
+	private SessionStoreInterface store;
+
+	@Autowired
+	private UserDataService userService;
+
+	@Value("${bookstore.session.timeout:30m}")
+	private Duration timeout;
+
+	private final SecureRandom random = new SecureRandom();
+
+	/**
+	 * Create session store security context repository
+	 */
+	public SessionStoreSecurityContextRepository() {
+
+	}
+
+	@Override
+	@Deprecated
+	public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+		var request = requestResponseHolder.getRequest();
+		var context = SecurityContextHolder.createEmptyContext();
+		var session = loadSession(request);
+		if (session != null) {
+			context.setAuthentication(
+					UsernamePasswordAuthenticationToken.authenticated(session.getUserName(), null, AUTHORITIES));
+		}
+		return context;
+	}
+
+	@Override
+	public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+		Authentication authentication = context.getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()
+				|| authentication instanceof AnonymousAuthenticationToken) {
+			// Nothing to keep. Logout removes stored records
+			return;
+		}
+
+		var current = (SessionEntity) request.getAttribute(SESSION_ATTRIBUTE);
+		if (current != null && current.getUserName().equals(authentication.getName())) {
+			return;
+		}
+
+		// New login. Always issue a fresh token so an old one can not be fixed on the user
+		if (current != null) {
+			store.delete(current.getId());
+		}
+		// The user was just loaded to check the password, so take the id from it
+		var userId = authentication.getPrincipal() instanceof BookStoreUser user ? Long.valueOf(user.getUserId())
+				: userService.findIdByUserName(authentication.getName());
+		if (userId == null) {
+			logger.warn("User not found for new session: {}", authentication.getName());
+			return;
+		}
+
+		var session = new SessionEntity(newToken(), userId, authentication.getName(), 0, System.currentTimeMillis());
+		if (store.save(session)) {
+			request.setAttribute(SESSION_ATTRIBUTE, session);
+			writeCookie(request, response, session.getId(), Duration.ofSeconds(-1));
+			logger.info("Session created for user: {}", session.getUserName());
+		}
+	}
+
+	@Override
+	public boolean containsContext(HttpServletRequest request) {
+		return loadSession(request) != null;
+	}
+
+	@Override
+	public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+		var id = readCookie(request);
+		if (id != null) {
+			store.delete(id);
+			logger.info("Session removed for user: {}", authentication != null ? authentication.getName() : "unknown");
+		}
+		request.removeAttribute(SESSION_ATTRIBUTE);
+		writeCookie(request, response, "", Duration.ZERO);
+	}
+
+	/**
+	 * Remove sessions that were not used within the timeout
+	 */
+	@Scheduled(fixedDelayString = "${bookstore.session.cleanup-interval:60000}")
+	public void purgeExpired() {
+		var count = store.deleteExpired(System.currentTimeMillis() - timeout.toMillis());
+		if (count > 0) {
+			logger.info("Removed {} expired sessions", count);
+		}
+	}
+
+	/**
+	 * Find the session record of the request, once per request
+	 * 
+	 * @param request request
+	 * @return session or null
+	 */
+	private SessionEntity loadSession(HttpServletRequest request) {
+		var session = (SessionEntity) request.getAttribute(SESSION_ATTRIBUTE);
+		if (session != null) {
+			return session;
+		}
+
+		var id = readCookie(request);
+		if (id == null) {
+			return null;
+		}
+		session = store.find(id);
+		var now = System.currentTimeMillis();
+		if (session == null || now - session.getLastAccess() > timeout.toMillis()) {
+			return null;
+		}
+
+		if (now - session.getLastAccess() > TOUCH_INTERVAL) {
+			session.setLastAccess(now);
+			// Write only the access time, a full save could undo a newer dashboard version
+			store.touch(session.getId(), now);
+		}
+		request.setAttribute(SESSION_ATTRIBUTE, session);
+		RequestSummary.setUser(session.getUserName());
+		return session;
+	}
+
+	/**
+	 * Get session token from the request cookies
+	 * 
+	 * @param request request
+	 * @return token or null
+	 */
+	private String readCookie(HttpServletRequest request) {
+		var cookies = request.getCookies();
+		if (cookies != null) {
+			for (var cookie : cookies) {
+				if (COOKIE_NAME.equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+					return cookie.getValue();
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Set or clear the session token cookie
+	 * 
+	 * @param request request
+	 * @param response response
+	 * @param value token
+	 * @param maxAge negative for browser session, zero to clear
+	 */
+	private void writeCookie(HttpServletRequest request, HttpServletResponse response, String value, Duration maxAge) {
+		var cookie = ResponseCookie.from(COOKIE_NAME, value).httpOnly(true).secure(request.isSecure()).path("/")
+				.sameSite("Lax").maxAge(maxAge).build();
+		response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+	}
+
+	/**
+	 * Create a random session token
+	 * 
+	 * @return token
+	 */
+	private String newToken() {
+		var bytes = new byte[32];
+		random.nextBytes(bytes);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+}
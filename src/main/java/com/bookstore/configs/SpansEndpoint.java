@@ -0,0 +1,48 @@
+package com.bookstore.configs;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.bookstore.models.SpanModel;
+
+/**
+ * Actuator endpoint to read the latest trace spans. Spans hold SQL text and the calls of
+ * every user's requests, so they are served on the management port only.
+ */
+@Component
+@Endpoint(id = "spans")
+public class SpansEndpoint {
+
+	@Autowired
+	private RecentSpanExporter recentSpans;
+
+	/**
+	 * Create spans endpoint
+	 */
+	public SpansEndpoint() {
+
+	}
+
+	/**
+	 * Get the latest spans
+	 * @param traceId only spans of this trace, all when null
+	 * @return spans, oldest first
+	 */
+	@ReadOperation
+	public List<SpanModel> spans(@Nullable String traceId) {
+		return recentSpans.getSpans(traceId).stream().map(span -> {
+			var attributes = new LinkedHashMap<String, String>();
+			span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+			return new SpanModel(span.getTraceId(), span.getSpanId(), span.getParentSpanId(), span.getName(),
+					TimeUnit.NANOSECONDS.toMillis(span.getStartEpochNanos()),
+					TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()), attributes);
+		}).toList();
+	}
+}
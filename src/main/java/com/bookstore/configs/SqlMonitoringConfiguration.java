@@ -0,0 +1,52 @@
+package com.bookstore.configs;
+
+import javax.sql.DataSource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Class to count and trace SQL statements per request. The application data source is wrapped, and
+ * the request summary warns when a request goes over its statement budget or repeats a statement.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bookstore.sql.counting.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMonitoringConfiguration {
+	private static final Logger logger = LogManager.getLogger(SqlMonitoringConfiguration.class);
+
+	/**
+	 * Create SQL monitoring config object
+	 */
+	public SqlMonitoringConfiguration() {
+		logger.info("SQL monitoring configuration class initialized.");
+	}
+
+	/**
+	 * Wraps every data source bean in a statement counting data source
+	 * 
+	 * @param observationRegistry registry for SQL statement spans
+	 * @return post processor
+	 */
+	@Bean
+	public static BeanPostProcessor statementCountingDataSourcePostProcessor(
+			ObjectProvider<ObservationRegistry> observationRegistry) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+					// The registry is resolved on the first statement, after the context is ready
+					return new StatementCountingDataSource(dataSource,
+							() -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+				}
+				return bean;
+			}
+		};
+	}
+}
@@ -0,0 +1,103 @@
+package com.bookstore.configs;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts SQL statements and result rows on the current thread.
+ * Scopes nest, so a test can measure a whole request while the request keeps its own count.
+ * Statements are recorded by StatementCountingDataSource.
+ */
+public final class SqlStatementCounter {
+	private static final ThreadLocal<Scope> current = new ThreadLocal<>();
+	private static final int MAX_DISTINCT_STATEMENTS = 1000; // Bounds the per scope statement map
+
+	private SqlStatementCounter() {
+	}
+
+	/**
+	 * Statements and rows counted between open and close
+	 */
+	public static final class Scope implements AutoCloseable {
+		private final Scope parent;
+		private final Map<String, Integer> statementCounts = new HashMap<>();
+		private int statements;
+		private long rows;
+
+		private Scope(Scope parent) {
+			this.parent = parent;
+		}
+
+		/**
+		 * Get statements executed
+		 * @return count
+		 */
+		public int getStatements() {
+			return statements;
+		}
+
+		/**
+		 * Get result rows read
+		 * @return count
+		 */
+		public long getRows() {
+			return rows;
+		}
+
+		/**
+		 * Get statements that ran at least the given number of times, the usual N+1 sign
+		 * @param threshold minimum executions
+		 * @return count per SQL text, most frequent first
+		 */
+		public Map<String, Integer> getRepeatedStatements(int threshold) {
+			var repeated = new LinkedHashMap<String, Integer>();
+			statementCounts.entrySet().stream()
+					.filter(e -> e.getValue() >= threshold)
+					.sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+					.forEach(e -> repeated.put(e.getKey(), e.getValue()));
+			return repeated;
+		}
+
+		@Override
+		public void close() {
+			if (parent != null) {
+				current.set(parent);
+			} else {
+				current.remove();
+			}
+		}
+	}
+
+	/**
+	 * Start counting on this thread
+	 * @return scope to close when done
+	 */
+	public static Scope open() {
+		var scope = new Scope(current.get());
+		current.set(scope);
+		return scope;
+	}
+
+	/**
+	 * Record an executed statement in every open scope
+	 * @param sql statement text, may be null
+	 */
+	static void recordStatement(String sql) {
+		for (var scope = current.get(); scope != null; scope = scope.parent) {
+			scope.statements++;
+			if (sql != null && (scope.statementCounts.size() < MAX_DISTINCT_STATEMENTS || scope.statementCounts.containsKey(sql))) {
+				scope.statementCounts.merge(sql, 1, Integer::sum);
+			}
+		}
+	}
+
+	/**
+	 * Record a result row read in every open scope
+	 */
+	static void recordRow() {
+		for (var scope = current.get(); scope != null; scope = scope.parent) {
+			scope.rows++;
+		}
+	}
+}
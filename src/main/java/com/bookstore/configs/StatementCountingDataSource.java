@@ -0,0 +1,170 @@
+package com.bookstore.configs;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.util.function.SingletonSupplier;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Data source wrapper that reports every executed statement and every result row read
+ * to SqlStatementCounter. Counting is a thread local lookup, so it is cheap when no scope is open.
+ * Each execution also runs in a trace span when an observation registry is given.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+	private final Supplier<ObservationRegistry> observationRegistry;
+
+	/**
+	 * Create counting data source
+	 * @param target real data source
+	 */
+	public StatementCountingDataSource(DataSource target) {
+		this(target, () -> ObservationRegistry.NOOP);
+	}
+
+	/**
+	 * Create counting and tracing data source
+	 * @param target real data source
+	 * @param observationRegistry registry for statement spans, looked up on first use
+	 */
+	public StatementCountingDataSource(DataSource target, Supplier<ObservationRegistry> observationRegistry) {
+		super(target);
+		this.observationRegistry = SingletonSupplier.of(observationRegistry);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return wrapConnection(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return wrapConnection(super.getConnection(username, password));
+	}
+
+	/**
+	 * Wrap a connection so the statements it creates are counted
+	 * @param connection connection
+	 * @return wrapped connection
+	 */
+	private Connection wrapConnection(Connection connection) {
+		return proxy(Connection.class, connection, (self, method, args) -> {
+			var result = invoke(connection, method, args);
+			if (result instanceof Statement statement) {
+				var sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+				return switch (method.getName()) {
+				case "prepareCall" -> wrapStatement(CallableStatement.class, statement, sql);
+				case "prepareStatement" -> wrapStatement(PreparedStatement.class, statement, sql);
+				default -> wrapStatement(Statement.class, statement, sql);
+				};
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Wrap a statement so its executions and result rows are counted
+	 * @param <T> statement type
+	 * @param type statement interface
+	 * @param statement statement
+	 * @param preparedSql SQL given when the statement was prepared
+	 * @return wrapped statement
+	 */
+	private <T extends Statement> T wrapStatement(Class<T> type, Statement statement, String preparedSql) {
+		return proxy(type, statement, (self, method, args) -> {
+			var name = method.getName();
+			Object result;
+			if (name.startsWith("execute")) {
+				// Plain statements carry their SQL in the call, prepared ones had it at prepare time
+				var sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+				SqlStatementCounter.recordStatement(sql);
+				result = traceExecution(sql, statement, method, args);
+			} else {
+				result = invoke(statement, method, args);
+			}
+			if (result instanceof ResultSet resultSet && ("executeQuery".equals(name) || "getResultSet".equals(name))) {
+				return wrapResultSet(resultSet);
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Execute a statement inside a span
+	 * @param sql statement text
+	 * @param statement statement
+	 * @param method execute method
+	 * @param args arguments
+	 * @return result
+	 * @throws Throwable error of the call
+	 */
+	private Object traceExecution(String sql, Statement statement, Method method, Object[] args) throws Throwable {
+		var registry = observationRegistry.get();
+		if (registry.isNoop()) {
+			return invoke(statement, method, args);
+		}
+		return Observation.createNotStarted("bookstore.sql", registry)
+				.contextualName("sql " + method.getName())
+				.highCardinalityKeyValue("db.statement", sql != null ? sql : "")
+				.observeChecked(() -> invoke(statement, method, args));
+	}
+
+	/**
+	 * Wrap a result set so the rows read are counted
+	 * @param resultSet result set
+	 * @return wrapped result set
+	 */
+	private static ResultSet wrapResultSet(ResultSet resultSet) {
+		return proxy(ResultSet.class, resultSet, (self, method, args) -> {
+			var result = invoke(resultSet, method, args);
+			if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+				SqlStatementCounter.recordRow();
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Create an interface proxy
+	 * @param <T> interface type
+	 * @param type interface
+	 * @param target wrapped object
+	 * @param handler call handler
+	 * @return proxy
+	 */
+	private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+		return type.cast(Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+				handler));
+	}
+
+	/**
+	 * Call the wrapped object and rethrow its own exception
+	 * @param target wrapped object
+	 * @param method method
+	 * @param args arguments
+	 * @return result
+	 * @throws Throwable error of the call
+	 */
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException ex) {
+			throw ex.getCause();
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.bookstore.configs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+/**
+ * Class to serve images and styles with content hash urls.
+ * A changed file gets a new url, so browsers may keep every version for a year without asking again.
+ * Gzip copies made at build time are sent to clients that accept them.
+ */
+@Configuration
+public class StaticResourceConfiguration implements WebMvcConfigurer {
+	private static final Logger logger = LogManager.getLogger(StaticResourceConfiguration.class);
+
+	/**
+	 * Url patterns of the static resources, also left out of the security chain
+	 */
+	public static final String[] STATIC_PATHS = { "/images/**", "/styles/**" };
+
+	/**
+	 * Create static resource config object
+	 */
+	public StaticResourceConfiguration() {
+		logger.info("Static resource configuration class initialized.");
+	}
+
+	@Override
+	public void addResourceHandlers(ResourceHandlerRegistry registry) {
+		for (var path : STATIC_PATHS) {
+			// /images/** is served from classpath:/static/images/ and so on
+			var location = "classpath:/static" + path.substring(0, path.length() - 2);
+			registry.addResourceHandler(path)
+					.addResourceLocations(location)
+					.setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+					.resourceChain(true)
+					.addResolver(new EncodedResourceResolver())
+					.addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+		}
+	}
+
+	/**
+	 * Rewrites resource links in the templates, e.g. /styles/common.css to /styles/common-{hash}.css
+	 * 
+	 * @return filter
+	 */
+	@Bean
+	public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+		return new ResourceUrlEncodingFilter();
+	}
+}
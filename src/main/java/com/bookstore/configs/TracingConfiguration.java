@@ -0,0 +1,44 @@
+package com.bookstore.configs;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Class to keep trace spans locally. Spring Boot sends finished spans to every SpanExporter bean.
+ * How many requests are traced is set by management.tracing.sampling.probability.
+ */
+@Configuration
+public class TracingConfiguration {
+	private static final Logger logger = LogManager.getLogger(TracingConfiguration.class);
+
+	/**
+	 * Create tracing config object
+	 */
+	public TracingConfiguration() {
+		logger.info("Tracing configuration class initialized.");
+	}
+
+	/**
+	 * Keeps the latest spans for /actuator/spans
+	 * @param capacity spans kept
+	 * @return exporter
+	 */
+	@Bean
+	public RecentSpanExporter recentSpanExporter(@Value("${bookstore.tracing.recent-spans:2000}") int capacity) {
+		return new RecentSpanExporter(capacity);
+	}
+
+	/**
+	 * Writes every span to logs/spans.log
+	 * @return exporter
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "bookstore.tracing.file.enabled", havingValue = "true", matchIfMissing = true)
+	public FileSpanExporter fileSpanExporter() {
+		return new FileSpanExporter();
+	}
+}
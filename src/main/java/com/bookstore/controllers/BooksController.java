@@ -13,7 +13,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import com.bookstore.business.BookStoreInterface;
+import com.bookstore.business.OrderInterface;
 import com.bookstore.models.BookModel;
+import com.bookstore.models.BookPageModel;
 
 import jakarta.validation.Valid;
 
@@ -28,6 +30,9 @@ public class BooksController extends ControllerBase {
 	@Autowired()
 	private BookStoreInterface bookService;
 
+	@Autowired()
+	private OrderInterface orderService;
+
 	/**
 	 * Create book controller
 	 */
@@ -36,21 +41,33 @@ public class BooksController extends ControllerBase {
 	}
 	
 	/**
-	 * All books purchasable to the user.
+	 * All books purchasable to the user, one page at a time.
 	 * 
+	 * @param token continuation token of the previous page
+	 * @param pageSize books per page
 	 * @param model model
 	 * @return allbooks page
 	 */
 	@GetMapping("/buybooks")
-	public String displayBuyBooks(Model model) {
-		logger.info("Displaying books available for purchase.");
+	public String displayBuyBooks(@RequestParam(required = false) String token,
+			@RequestParam(defaultValue = "20") int pageSize, Model model) {
+		logger.debug("Displaying books available for purchase.");
 
 		// If the user session is valid add attributes
 		if (hasValidUserSession()) {
 			addCommonAttributes(model);
-			var lstBooks = bookService.getBooksOfOthers(loggedInSession.getUserName());
-			model.addAttribute("bookList", lstBooks);
-			logger.info("Books available for purchase added to model.");
+			BookPageModel page;
+			try {
+				page = bookService.getBooksOfOthers(loggedInSession.getUserName(), pageSize, token);
+			} catch (IllegalArgumentException ex) {
+				// Bad token, start from the first page
+				logger.warn("Invalid page token, showing first page.");
+				page = bookService.getBooksOfOthers(loggedInSession.getUserName(), pageSize, null);
+			}
+			model.addAttribute("bookList", page.getBooks());
+			model.addAttribute("nextToken", page.getNextToken());
+			model.addAttribute("pageSize", pageSize);
+			logger.debug("Books available for purchase added to model.");
 		}
 		else {
 			logger.warn("User session is invalid, redirecting to login.");
@@ -58,6 +75,31 @@ public class BooksController extends ControllerBase {
 		return "buybooks";
 	}
 	
+	/**
+	 * Buy book form submit handler. Places an order and goes back to the book list.
+	 * 
+	 * @param id book id
+	 * @param quantity units to buy
+	 * @return redirect to buy books
+	 */
+	@PostMapping("/doBuyBook")
+	public String doBuyBook(@RequestParam String id, @RequestParam(defaultValue = "1") int quantity) {
+		logger.debug("Attempting to buy book with ID: {}", id);
+
+		// If the user session is valid security redirects to login
+		if (!hasValidUserSession()) {
+			logger.warn("User session is invalid, redirecting to login.");
+			return "redirect:/login";
+		}
+
+		if (orderService.placeOrder(id, quantity, loggedInSession.getUserName())) {
+			logger.debug("Book bought successfully.");
+		} else {
+			logger.error("Error buying book with ID: {}", id);
+		}
+		return "redirect:/books/buybooks";
+	}
+
 	/**
 	 * Books listed by the user
 	 * @param model model
@@ -65,13 +107,13 @@ public class BooksController extends ControllerBase {
 	 */
 	@GetMapping("mybooks")
 	public String displayBooksForUser(Model model) {
-		logger.info("Displaying books listed by the current user.");
+		logger.debug("Displaying books listed by the current user.");
 		// If the user session is valid add attributes
 		if (hasValidUserSession()) {
 			addCommonAttributes(model);
 			var lstBooks = bookService.getBooksForUser(loggedInSession.getUserName());
 			model.addAttribute("bookList", lstBooks);
-			logger.info("Books listed by the user added to model.");
+			logger.debug("Books listed by the user added to model.");
 		} else {
 			logger.warn("User session is invalid, redirecting to login.");
 		}
@@ -85,7 +127,7 @@ public class BooksController extends ControllerBase {
 	 */
 	@GetMapping("addbook")
 	public String displayAddBook(Model model) {
-		logger.info("Displaying add book form.");
+		logger.debug("Displaying add book form.");
 
 		// If the user session is valid add attributes
 		if (hasValidUserSession()) {
@@ -108,7 +150,7 @@ public class BooksController extends ControllerBase {
 	@PostMapping("/doAddBook")
 	public String doAddBook(@ModelAttribute @Valid BookModel bookModel, BindingResult result, Model model) {
 
-		logger.info("Attempting to add a new book.");
+		logger.debug("Attempting to add a new book.");
 
 		// If the user session is valid security redirects to login
 		if (!hasValidUserSession()) {
@@ -129,8 +171,8 @@ public class BooksController extends ControllerBase {
 		
 		// If all looks OK. add the book to store
 		if (bookService.addBook(bookModel)) {
-			loggedInSession.updateUserDashboard();
-			logger.info("Book added successfully.");
+			loggedInSession.bookAdded(bookModel);
+			logger.debug("Book added successfully.");
 			// When add book succeeds, we can redirect to dashboard
 			return "redirect:/dashboard";
 		} else {
@@ -148,7 +190,7 @@ public class BooksController extends ControllerBase {
 	 */
 	@GetMapping("editbook")
 	public String displayEditBook(@RequestParam(required = false) String id, Model model) {
-		logger.info("Displaying edit book form for book ID: {}", id);
+		logger.debug("Displaying edit book form for book ID: {}", id);
 
 		// If the user session is valid add attributes
 		if (hasValidUserSession()) {
@@ -181,7 +223,7 @@ public class BooksController extends ControllerBase {
 	@PostMapping("/doEditBook")
 	public String doEditBook(@ModelAttribute @Valid BookModel bookModel, BindingResult result, Model model) {
 
-		logger.info("Attempting to update book with ID: {}", bookModel.getBookId());
+		logger.debug("Attempting to update book with ID: {}", bookModel.getBookId());
 
 		// If the user session is valid security redirects to login
 		if (!hasValidUserSession()) {
@@ -202,9 +244,9 @@ public class BooksController extends ControllerBase {
 		
 		// If all looks OK. add the book to store
 		if (bookService.updateBook(bookModel)) {
-			loggedInSession.updateUserDashboard();
+			loggedInSession.bookUpdated(bookModel);
 			// When add book succeeds, we can redirect to my books
-			logger.info("Book updated successfully.");
+			logger.debug("Book updated successfully.");
 			return "redirect:/books/mybooks";
 		} else {
 			result.rejectValue("name", "error.bookModel", "Error updating book. Please try again later.");
@@ -222,7 +264,7 @@ public class BooksController extends ControllerBase {
 	@GetMapping("deletebook")
 	public String displayDeleteBook(@RequestParam(required = false) String id, Model model) {
 
-		logger.info("Displaying delete book form for book ID: {}", id);
+		logger.debug("Displaying delete book form for book ID: {}", id);
 
 		// If the user session is valid add attributes
 		if (hasValidUserSession()) {
@@ -255,7 +297,7 @@ public class BooksController extends ControllerBase {
 	@PostMapping("/doDeleteBook")
 	public String doDeleteBook(@ModelAttribute @Valid BookModel bookModel, BindingResult result, Model model) {
 
-		logger.info("Attempting to delete book with ID: {}", bookModel.getBookId());
+		logger.debug("Attempting to delete book with ID: {}", bookModel.getBookId());
 
 		// If the user session is valid security redirects to login
 		if (!hasValidUserSession()) {
@@ -276,9 +318,9 @@ public class BooksController extends ControllerBase {
 		
 		// If all looks OK. add the book to store
 		if (bookService.deleteBook(bookModel)) {
-			loggedInSession.updateUserDashboard();
+			loggedInSession.bookDeleted(bookModel);
 			// When add book succeeds, we can redirect to my books
-			logger.info("Book deleted successfully.");
+			logger.debug("Book deleted successfully.");
 			return "redirect:/books/mybooks";
 		} else {
 			result.rejectValue("name", "error.bookModel", "Error deleting book. Please try again later.");
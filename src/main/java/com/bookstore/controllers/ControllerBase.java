@@ -3,7 +3,7 @@ package com.bookstore.controllers;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.ui.Model;
 
 import com.bookstore.business.UserSessionInterface;
@@ -26,7 +26,8 @@ public abstract class ControllerBase {
 	}
 	
 	// For handling password encryption
-	protected BCryptPasswordEncoder bcrypt  = new BCryptPasswordEncoder();
+	@Autowired
+	protected PasswordEncoder passwordEncoder;
 	
 	/**
 	 * Adds common attributes to the models for all controller classes
@@ -34,7 +35,7 @@ public abstract class ControllerBase {
 	 */
 	protected void addCommonAttributes(Model model) {
 		// Add the user store so the view can get current user if any
-		logger.info("Adding common attributes to the model.");
+		logger.debug("Adding common attributes to the model.");
 
 		model.addAttribute("sessionInfo", loggedInSession);
 	}
@@ -42,10 +43,10 @@ public abstract class ControllerBase {
 	protected boolean hasValidUserSession() {		
 		var name = loggedInSession.getUserName();
 		if (name != null && !name.isEmpty()) {
-			logger.info("User session is valid for user: {}", name);
+			logger.debug("User session is valid for user: {}", name);
 			return true;
 		}
-		logger.warn("Invalid user session.");
+		logger.debug("Invalid user session.");
 		return false;
 	}
 }
@@ -34,7 +34,7 @@ public class DashboardController extends ControllerBase {
 		addCommonAttributes(model);
 
 		if (hasValidUserSession()) {
-			logger.info("Displaying dashboard for user: {}", loggedInSession.getUserName());
+			logger.debug("Displaying dashboard for user: {}", loggedInSession.getUserName());
 			model.addAttribute("dashboard", loggedInSession.getUserDashboard());
 		}
 		else {
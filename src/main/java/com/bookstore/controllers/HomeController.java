@@ -31,14 +31,14 @@ public class HomeController extends ControllerBase {
 	public String displayHome(Model model) {
 		addCommonAttributes(model);
 
-		logger.info("Request to display home page");
+		logger.debug("Request to display home page");
 		
 		if (!hasValidUserSession()) {
-			logger.info("No valid user session. Displaying home page.");
+			logger.debug("No valid user session. Displaying home page.");
 			// return the home view
 			return "home";
 		} else {
-			logger.info("User is logged in. Redirecting to dashboard.");
+			logger.debug("User is logged in. Redirecting to dashboard.");
 			// If the user is logged in show dash board
 			return "redirect:/dashboard";
 		}
@@ -55,7 +55,7 @@ public class HomeController extends ControllerBase {
 	public String displayAbout(Model model) {
 		addCommonAttributes(model);
 
-		logger.info("Request to display about page");
+		logger.debug("Request to display about page");
 
 		// Return the about view
 		return "about";
@@ -33,7 +33,7 @@ public class LoginController extends ControllerBase {
 	public String displayLogin(Model model) {
 		// If the user session is valid redirect to dahsboard
 		if (hasValidUserSession()) {
-			logger.info("User already logged in, redirecting to dashboard.");
+			logger.debug("User already logged in, redirecting to dashboard.");
 			return "redirect:/dashboard";
 		}
 
@@ -41,7 +41,7 @@ public class LoginController extends ControllerBase {
 
 		// Not needed after implementing Spring Security
 		// model.addAttribute("loginModel", new LoginModel());
-		logger.info("Displaying login page.");
+		logger.debug("Displaying login page.");
 		return "login";
 	}
 
@@ -58,6 +58,19 @@ public class LoginController extends ControllerBase {
 		return "login";
 	}
 	
+	/**
+	 * Login throttled handler to ask the user to wait before trying again
+	 * @param model model
+	 * @return login view
+	 */
+	@GetMapping("/login-throttled")
+	public String loginThrottled(Model model) {
+		addCommonAttributes(model);
+		model.addAttribute("loginError", "Too many login attempts. Please wait a minute and try again.");
+		logger.warn("Login rejected by throttle.");
+		return "login";
+	}
+	
 	/**
 	 * Login success handler to set login session information on business object
 	 * @param principal security details
@@ -65,7 +78,7 @@ public class LoginController extends ControllerBase {
 	 */
 	@GetMapping("/login-success")
 	public String loginSuccess(Principal principal) {
-		logger.info("User {} successfully logged in.", principal.getName());
+		logger.debug("User {} successfully logged in.", principal.getName());
 		// When login succeeds, set the session information to our session bean
 		loggedInSession.setCurrentUser(principal.getName());
 		// Then redirect to dashboard
@@ -79,7 +92,7 @@ public class LoginController extends ControllerBase {
 	 */
 	@PostMapping("/logout")
 	public String logOut(Model model) {
-		logger.info("User {} logged out successfully.", loggedInSession.getUserName());
+		logger.debug("User {} logged out successfully.", loggedInSession.getUserName());
 		// The http details are invalidated by security. Just logout the business service
 		loggedInSession.logOut();
 		return "redirect:/";		
@@ -3,6 +3,7 @@ package com.bookstore.controllers;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -47,12 +48,12 @@ public class SignupController extends ControllerBase {
 
 		// If the user session is valid redirect to dahsboard
 		if (hasValidUserSession()) {
-			logger.info("User is already logged in, redirecting to dashboard.");
+			logger.debug("User is already logged in, redirecting to dashboard.");
 			return "redirect:/dashboard";
 		} else {
 			addCommonAttributes(model);
 			model.addAttribute("signUpModel", new UserModel());
-			logger.info("Displaying sign-up page.");
+			logger.debug("Displaying sign-up page.");
 			return "signup";
 		}
 	}
@@ -71,7 +72,7 @@ public class SignupController extends ControllerBase {
 
 		// If the user session is valid redirect to dahsboard
 		if (hasValidUserSession()) {
-			logger.info("User is already logged in, redirecting to dashboard.");
+			logger.debug("User is already logged in, redirecting to dashboard.");
 			return "redirect:/dashboard";
 		}
 
@@ -91,10 +92,17 @@ public class SignupController extends ControllerBase {
 		}
 
 		// If all looks OK. add the user to store. Encode password text
-		signUpModel.setPassword(bcrypt.encode(signUpModel.getPassword()));
+		try {
+			signUpModel.setPassword(passwordEncoder.encode(signUpModel.getPassword()));
+		} catch (AuthenticationServiceException ex) {
+			// Hashing pool is full. Keep the form so the user can submit again
+			result.rejectValue("password", "error.signUpModel", "Sign up is busy right now. Please try again");
+			logger.warn("Password hashing busy during sign-up of user: {}", signUpModel.getUserName());
+			return "signup";
+		}
 		userManager.addUser(signUpModel);
 
-		logger.info("User {} successfully signed up.", signUpModel.getUserName());
+		logger.debug("User {} successfully signed up.", signUpModel.getUserName());
 
 		// When sign up succeeds, we can redirect to login
 		return "redirect:/login";
@@ -3,8 +3,8 @@ package com.bookstore.controllers;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.stereotype.Controller;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,7 +12,6 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import com.bookstore.business.BookStoreInterface;
 import com.bookstore.business.UserManagementService;
 import com.bookstore.models.UserModel;
 
@@ -29,9 +28,6 @@ public class UserAccountController extends ControllerBase {
 	@Autowired
 	private UserManagementService userManager;
 	
-	@Autowired
-	private BookStoreInterface bookService;
-	
 	/**
 	 * Create UserAccount controller object
 	 */
@@ -55,7 +51,7 @@ public class UserAccountController extends ControllerBase {
 			var user = userManager.getUser(loggedInSession.getUserName());
 			
 			model.addAttribute("userModel", user);
-			logger.info("Displaying account details for user: {}", loggedInSession.getUserName());
+			logger.debug("Displaying account details for user: {}", loggedInSession.getUserName());
 		}
 		else {
 			logger.warn("Attempted access to account details without a valid session.");
@@ -79,7 +75,7 @@ public class UserAccountController extends ControllerBase {
 			addCommonAttributes(model);
 			var user = userManager.getUser(loggedInSession.getUserName());
 			model.addAttribute("userModel", user);
-			logger.info("Displaying edit account page for user: {}", loggedInSession.getUserName());
+			logger.debug("Displaying edit account page for user: {}", loggedInSession.getUserName());
 		}
 		else {
 			logger.warn("Attempted access to edit account page without a valid session.");
@@ -117,7 +113,14 @@ public class UserAccountController extends ControllerBase {
 
 
 		// If all looks OK. update the user to store
-		userModel.setPassword(bcrypt.encode(userModel.getPassword())); // encrypt password text
+		try {
+			userModel.setPassword(passwordEncoder.encode(userModel.getPassword())); // encrypt password text
+		} catch (AuthenticationServiceException ex) {
+			// Hashing pool is full. Keep the form so the user can submit again
+			result.rejectValue("password", "error.userModel", "Too many requests right now. Please try again");
+			logger.warn("Password hashing busy while editing user: {}", loggedInSession.getUserName());
+			return "editaccount";
+		}
 		if (!userManager.updateUser(userModel)) {
 			// If failed set the error 
 			result.rejectValue("name", "error.userModel", "Error updating details. Please try again later.");
@@ -126,7 +129,7 @@ public class UserAccountController extends ControllerBase {
 		}
 		
 		// When edit succeeds, we can redirect to account
-		logger.info("Successfully updated user details for user: {}", loggedInSession.getUserName());
+		logger.debug("Successfully updated user details for user: {}", loggedInSession.getUserName());
 		return "redirect:/myaccount";
 	}
 	
@@ -145,7 +148,7 @@ public class UserAccountController extends ControllerBase {
 			addCommonAttributes(model);
 			var user = userManager.getUser(loggedInSession.getUserName());
 			model.addAttribute("userModel", user);
-			logger.info("Displaying delete account page for user: {}", loggedInSession.getUserName());
+			logger.debug("Displaying delete account page for user: {}", loggedInSession.getUserName());
 		}
 		else {
 			logger.warn("Attempted access to delete account page without a valid session.");
@@ -173,8 +176,8 @@ public class UserAccountController extends ControllerBase {
 
 		// We are deleting current session user. So model is not relevant here
 		var user = userManager.getUser(loggedInSession.getUserName());
-		// delete the user from store
-		if (!removeBooksAndUser(user)) {
+		// delete the user and the books from store in one transaction
+		if (!userManager.deleteUserAccount(user)) {
 			// If failed set the error 
 			result.rejectValue("name", "error.userModel", "Error deleting user. Please try again later.");
 			logger.error("Failed to delete user account for user: {}", loggedInSession.getUserName());
@@ -183,35 +186,9 @@ public class UserAccountController extends ControllerBase {
 		
 		// When deletion succeed log out the user as it is no longer valid
 		loggedInSession.logOut();
-		logger.info("Successfully deleted user account for user: {}", loggedInSession.getUserName());
+		logger.debug("Successfully deleted user account for user: {}", loggedInSession.getUserName());
 		
 		// When delete succeeds, we can redirect to home
 		return "redirect:/";
 	}
-	
-	/**
-	 * Delete books for user and then delete user
-	 * @param user user
-	 * @return success or fail
-	 */
-	@Transactional
-	private boolean removeBooksAndUser(UserModel user) {
-		try {
-		// TODO: Delete orders and invoice for user
-		if (!bookService.deleteAllBooksForUser(user.getUserName())){
-			logger.error("Failed to delete books for user: {}", user.getUserName());
-			return false;
-		}
-		
-		if (!userManager.deleteUser(user)) {
-			logger.error("Failed to delete user: {}", user.getUserName());
-			return false;
-		}
-		}catch(Exception ex) {
-			logger.error("Exception occurred while deleting user and books for user: {}", user.getUserName(), ex);
-			ex.printStackTrace();
-			return false;
-		}
-		return true;
-	}
 }
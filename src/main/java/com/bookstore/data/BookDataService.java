@@ -1,18 +1,33 @@
 package com.bookstore.data;
 
+import java.sql.BatchUpdateException;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 
+import com.bookstore.configs.CacheConfiguration;
 import com.bookstore.data.entity.BookEntity;
+import com.bookstore.data.entity.BookListingEntity;
+import com.bookstore.data.repository.BookListingRowMapper;
 import com.bookstore.data.repository.BookRepository;
 
 /**
- * Book data repo management class
+ * Book data repo management class.
+ * Reads are cached and every write evicts the entries it can change.
  */
 @Service("BookDataService")
 public class BookDataService implements DataAccessInterface<BookEntity> {
@@ -22,6 +37,18 @@ public class BookDataService implements DataAccessInterface<BookEntity> {
 	@Autowired
 	private BookRepository bookRepo;
 
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private static final String BATCH_INSERT = "INSERT INTO BOOKS (NAME, AUTHOR, PUBLISH_DATE, DESCRIPTION, PRICE, QUANTITY, OWNER)"
+			+ " VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+	@Value("${bookstore.delete.chunk-size:5000}")
+	private int deleteChunkSize; // rows removed per DELETE statement
+
+	@Value("${bookstore.export.fetch-size:500}")
+	private int exportFetchSize; // rows fetched per round trip while streaming
+
 	/**
 	 * Construct Book Data Service
 	 */
@@ -30,33 +57,212 @@ public class BookDataService implements DataAccessInterface<BookEntity> {
 	}
 	
 	/**
-	 * Find all books
+	 * Find all books. Returns null if the books could not be read, so a failure is not cached
 	 */
 	@Override
+	@Cacheable(cacheNames = CacheConfiguration.BOOK_LIST, key = "'all'", unless = "#result == null")
 	public List<BookEntity> findAll() {
 		var books = new ArrayList<BookEntity>();
 		try {
 			var iter = bookRepo.findAll();
 			iter.forEach(books::add);
-			logger.info("Fetched all books, total count: {}", books.size());
+			logger.debug("Fetched all books, total count: {}", books.size());
 		} catch (Exception ex) {
 			logger.error("Error occurred while fetching all books", ex);
 			ex.printStackTrace();
+			return null;
 		}
 
 		return books;
 	}
 
+
+	/**
+	 * Find books listed by an owner
+	 * @param owner owner id
+	 * @return books or null if they could not be read
+	 */
+	@Cacheable(cacheNames = CacheConfiguration.BOOKS_BY_OWNER, key = "#owner", unless = "#result == null")
+	public List<BookEntity> findByOwner(long owner) {
+		try {
+			var books = bookRepo.findByOwner(owner);
+			logger.debug("Fetched books for owner: {}, total count: {}", owner, books.size());
+			return books;
+		} catch (Exception ex) {
+			logger.error("Error occurred while fetching books for owner: {}", owner, ex);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Find the first books listed by an owner in id order
+	 * @param owner owner id
+	 * @param limit maximum rows
+	 * @return books
+	 */
+	public List<BookEntity> findFirstByOwner(long owner, int limit) {
+		try {
+			var books = bookRepo.findFirstByOwner(owner, limit);
+			logger.debug("Fetched first {} books for owner: {}", books.size(), owner);
+			return books;
+		} catch (Exception ex) {
+			logger.error("Error occurred while fetching first books for owner: {}", owner, ex);
+		}
+
+		return new ArrayList<BookEntity>();
+	}
+
+	/**
+	 * Find a page of books joined with their owner names, ordered by id
+	 * @param afterId last id of the previous page, 0 for the first page
+	 * @param limit maximum rows
+	 * @return book listings or null if they could not be read
+	 */
+	@Cacheable(cacheNames = CacheConfiguration.BOOK_LISTINGS, key = "{'all', #afterId, #limit}", unless = "#result == null")
+	public List<BookListingEntity> findListingsAfter(long afterId, int limit) {
+		try {
+			var books = bookRepo.findListingsAfter(afterId, limit);
+			logger.debug("Fetched book listings after id: {}, count: {}", afterId, books.size());
+			return books;
+		} catch (Exception ex) {
+			logger.error("Error occurred while fetching book listings after id: {}", afterId, ex);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Find a page of books of owners other than the given one, joined with their owner names
+	 * @param owner owner id to exclude
+	 * @param afterId last id of the previous page, 0 for the first page
+	 * @param limit maximum rows
+	 * @return book listings or null if they could not be read
+	 */
+	@Cacheable(cacheNames = CacheConfiguration.BOOK_LISTINGS, key = "{'others', #owner, #afterId, #limit}", unless = "#result == null")
+	public List<BookListingEntity> findListingsByOwnerNotAfter(long owner, long afterId, int limit) {
+		try {
+			var books = bookRepo.findListingsByOwnerNotAfter(owner, afterId, limit);
+			logger.debug("Fetched book listings not owned by: {} after id: {}, count: {}", owner, afterId, books.size());
+			return books;
+		} catch (Exception ex) {
+			logger.error("Error occurred while fetching book listings not owned by: {}", owner, ex);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Stream all books joined with their owner names, ordered by id. Rows are read
+	 * through a forward only cursor in chunks of the export fetch size, so memory
+	 * use does not depend on the number of books.
+	 * @param handler called for every row
+	 * @return number of rows streamed
+	 */
+	public long streamAllListings(Consumer<BookListingEntity> handler) {
+		var mapper = new BookListingRowMapper();
+		var count = new long[] { 0 };
+		jdbcTemplate.query(con -> {
+			var ps = con.prepareStatement(BookRepository.LISTING_SELECT + " ORDER BY b.ID", ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
+			ps.setFetchSize(exportFetchSize);
+			return ps;
+		}, (RowCallbackHandler) rs -> handler.accept(mapper.mapRow(rs, (int) count[0]++)));
+		logger.debug("Streamed all book listings, total count: {}", count[0]);
+		return count[0];
+	}
+
+	/**
+	 * Insert books with JDBC batches. BOOK_ID is not written, same as create.
+	 * @param books books to insert
+	 * @return number of rows inserted
+	 */
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfiguration.BOOKS_BY_OWNER, allEntries = true),
+			@CacheEvict(cacheNames = { CacheConfiguration.BOOK_LIST, CacheConfiguration.BOOK_LISTINGS }, allEntries = true) })
+	public int createBatch(List<BookEntity> books) {
+		try {
+			var counts = jdbcTemplate.batchUpdate(BATCH_INSERT, books, books.size(), (ps, book) -> {
+				ps.setString(1, book.getName());
+				ps.setString(2, book.getAuthor());
+				ps.setTimestamp(3, new Timestamp(book.getPublishDate().getTime()));
+				ps.setString(4, book.getDescription());
+				ps.setFloat(5, book.getPrice());
+				ps.setInt(6, book.getQuantity());
+				ps.setLong(7, book.getOwner());
+			});
+			var inserted = 0;
+			for (var batch : counts) {
+				inserted += countInserted(batch);
+			}
+			logger.debug("Successfully inserted batch of {} books", inserted);
+			return inserted;
+		} catch (Exception ex) {
+			logger.error("Error occurred while inserting batch of {} books", books.size(), ex);
+			// Statements run in auto commit, so rows the driver sent before the failure stay inserted
+			for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+				if (cause instanceof BatchUpdateException batchError && batchError.getUpdateCounts() != null) {
+					return countInserted(batchError.getUpdateCounts());
+				}
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Count inserted rows from JDBC update counts
+	 * 
+	 * @param counts update counts
+	 * @return rows inserted
+	 */
+	private static int countInserted(int[] counts) {
+		var inserted = 0;
+		for (var count : counts) {
+			// Rewritten batches report SUCCESS_NO_INFO instead of a row count
+			if (count == Statement.SUCCESS_NO_INFO) {
+				inserted++;
+			} else if (count > 0) {
+				inserted += count;
+			}
+		}
+		return inserted;
+	}
+
+	/**
+	 * Delete all books listed by an owner. Rows are removed in chunks so no single DELETE
+	 * statement grows past the configured chunk size. All chunks run in the caller's transaction,
+	 * and the cache evictions wait for it to commit.
+	 * @param owner owner id
+	 * @return success or fail
+	 */
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfiguration.BOOKS, allEntries = true),
+			@CacheEvict(cacheNames = CacheConfiguration.BOOKS_BY_OWNER, key = "#owner"),
+			@CacheEvict(cacheNames = { CacheConfiguration.BOOK_LIST, CacheConfiguration.BOOK_LISTINGS }, allEntries = true) })
+	public boolean deleteAllByOwner(long owner) {
+		try {
+			long total = 0;
+			int count;
+			do {
+				count = bookRepo.deleteByOwner(owner, deleteChunkSize);
+				total += count;
+			} while (count == deleteChunkSize);
+			logger.debug("Successfully deleted {} books for owner: {}", total, owner);
+		} catch (Exception ex) {
+			logger.error("Error occurred while deleting books for owner: {}", owner, ex);
+			return false;
+		}
+		return true;
+	}
 	
 	/**
 	 * Find book for id
 	 */
 	@Override
+	@Cacheable(cacheNames = CacheConfiguration.BOOKS, key = "#id", unless = "#result == null")
 	public BookEntity findById(long id) {
 		try {
 			var book = bookRepo.findById(id);
 			if (book.isPresent()) {
-				logger.info("Book found with ID: {}", id);
+				logger.debug("Book found with ID: {}", id);
 				return book.get();
 			} else {
 				logger.warn("No book found with ID: {}", id);
@@ -72,10 +278,12 @@ public class BookDataService implements DataAccessInterface<BookEntity> {
 	 * create new book
 	 */
 	@Override
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfiguration.BOOKS_BY_OWNER, key = "#book.owner"),
+			@CacheEvict(cacheNames = { CacheConfiguration.BOOK_LIST, CacheConfiguration.BOOK_LISTINGS }, allEntries = true) })
 	public BookEntity create(BookEntity book) {
 		try {
 			BookEntity savedBook = bookRepo.save(book);
-			logger.info("Successfully created new book: {}", book.getName());
+			logger.debug("Successfully created new book: {}", book.getName());
 			return savedBook;
 		} catch (Exception ex) {
 			logger.error("Error occurred while creating book: {}", book.getName(), ex);
@@ -87,10 +295,19 @@ public class BookDataService implements DataAccessInterface<BookEntity> {
 	 * update existing one
 	 */
 	@Override
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfiguration.BOOKS, key = "#book.id"),
+			@CacheEvict(cacheNames = CacheConfiguration.BOOKS_BY_OWNER, key = "#book.owner"),
+			@CacheEvict(cacheNames = { CacheConfiguration.BOOK_LIST, CacheConfiguration.BOOK_LISTINGS }, allEntries = true) })
 	public boolean update(BookEntity book) {
 		try {
-			bookRepo.save(book);
-			logger.info("Successfully updated book: {}", book.getName());
+			// Single UPDATE scoped to the owner
+			var count = bookRepo.updateForOwner(book.getId(), book.getOwner(), book.getName(), book.getAuthor(),
+					book.getPublishDate(), book.getDescription(), book.getPrice(), book.getQuantity());
+			if (count != 1) {
+				logger.warn("No book updated with ID: {} for owner: {}", book.getId(), book.getOwner());
+				return false;
+			}
+			logger.debug("Successfully updated book: {}", book.getName());
 		} catch (Exception ex) {
 			logger.error("Error occurred while updating book: {}", book.getName(), ex);
 			ex.printStackTrace();
@@ -99,14 +316,44 @@ public class BookDataService implements DataAccessInterface<BookEntity> {
 		return true;
 	}
 
+	/**
+	 * Take units of a book out of stock
+	 * @param book book
+	 * @param quantity units
+	 * @return true if enough units were in stock
+	 */
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfiguration.BOOKS, key = "#book.id"),
+			@CacheEvict(cacheNames = CacheConfiguration.BOOKS_BY_OWNER, key = "#book.owner"),
+			@CacheEvict(cacheNames = { CacheConfiguration.BOOK_LIST, CacheConfiguration.BOOK_LISTINGS }, allEntries = true) })
+	public boolean takeStock(BookEntity book, int quantity) {
+		try {
+			if (bookRepo.takeStock(book.getId(), quantity) == 1) {
+				logger.debug("Took {} units of book: {}", quantity, book.getId());
+				return true;
+			}
+			logger.warn("Not enough stock of book: {} for {} units", book.getId(), quantity);
+		} catch (Exception ex) {
+			logger.error("Error occurred while taking stock of book: {}", book.getId(), ex);
+		}
+		return false;
+	}
+
 	/**
 	 * delete a book
 	 */
 	@Override
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfiguration.BOOKS, key = "#book.id"),
+			@CacheEvict(cacheNames = CacheConfiguration.BOOKS_BY_OWNER, key = "#book.owner"),
+			@CacheEvict(cacheNames = { CacheConfiguration.BOOK_LIST, CacheConfiguration.BOOK_LISTINGS }, allEntries = true) })
 	public boolean delete(BookEntity book) {
 		try {
-			bookRepo.delete(book);
-			logger.info("Successfully deleted book: {}", book.getName());
+			// Single DELETE scoped to the owner
+			var count = bookRepo.deleteForOwner(book.getId(), book.getOwner());
+			if (count != 1) {
+				logger.warn("No book deleted with ID: {} for owner: {}", book.getId(), book.getOwner());
+				return false;
+			}
+			logger.debug("Successfully deleted book: {}", book.getName());
 		} catch (Exception ex) {
 			logger.error("Error occurred while deleting book: {}", book.getName(), ex);
 			ex.printStackTrace();
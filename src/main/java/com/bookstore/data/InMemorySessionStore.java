@@ -0,0 +1,73 @@
+package com.bookstore.data;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.bookstore.data.entity.SessionEntity;
+
+/**
+ * Session records kept in this node's memory. Default store for a single node.
+ */
+@Service
+@ConditionalOnProperty(name = "bookstore.session.store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySessionStore implements SessionStoreInterface {
+
+	private static final Logger logger = LogManager.getLogger(InMemorySessionStore.class);
+
+	private final ConcurrentHashMap<String, SessionEntity> sessions = new ConcurrentHashMap<>();
+
+	/**
+	 * Create in memory session store
+	 */
+	public InMemorySessionStore() {
+		logger.debug("Using in memory session store.");
+	}
+
+	@Override
+	public SessionEntity find(String id) {
+		var session = sessions.get(id);
+		// Hand out copies so callers can not change the stored record without save
+		return session == null ? null
+				: new SessionEntity(session.getId(), session.getUserId(), session.getUserName(),
+						session.getDashboardVersion(), session.getLastAccess());
+	}
+
+	@Override
+	public boolean save(SessionEntity session) {
+		sessions.put(session.getId(), new SessionEntity(session.getId(), session.getUserId(), session.getUserName(),
+				session.getDashboardVersion(), session.getLastAccess()));
+		return true;
+	}
+
+	@Override
+	public boolean touch(String id, long lastAccess) {
+		sessions.computeIfPresent(id, (key, session) -> session.getLastAccess() >= lastAccess ? session
+				: new SessionEntity(key, session.getUserId(), session.getUserName(), session.getDashboardVersion(),
+						lastAccess));
+		return true;
+	}
+
+	@Override
+	public long nextDashboardVersion(String id) {
+		var session = sessions.computeIfPresent(id, (key, current) -> new SessionEntity(key, current.getUserId(),
+				current.getUserName(), current.getDashboardVersion() + 1, current.getLastAccess()));
+		return session == null ? -1 : session.getDashboardVersion();
+	}
+
+	@Override
+	public boolean delete(String id) {
+		sessions.remove(id);
+		return true;
+	}
+
+	@Override
+	public int deleteExpired(long lastAccessBefore) {
+		var before = sessions.size();
+		sessions.values().removeIf(session -> session.getLastAccess() < lastAccessBefore);
+		return before - sessions.size();
+	}
+}
@@ -0,0 +1,119 @@
+package com.bookstore.data;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bookstore.data.entity.SessionEntity;
+
+/**
+ * Session records kept in the USER_SESSIONS table, shared by all application nodes.
+ * Table definition is in db/user-sessions.sql.
+ */
+@Service
+@ConditionalOnProperty(name = "bookstore.session.store", havingValue = "jdbc")
+public class JdbcSessionStore implements SessionStoreInterface {
+
+	private static final Logger logger = LogManager.getLogger(JdbcSessionStore.class);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Create JDBC session store
+	 */
+	public JdbcSessionStore() {
+		logger.debug("Using JDBC session store.");
+	}
+
+	@Override
+	public SessionEntity find(String id) {
+		try {
+			var sessions = jdbcTemplate.query(
+					"SELECT ID, USER_ID, USER_NAME, DASHBOARD_VERSION, LAST_ACCESS FROM USER_SESSIONS WHERE ID = ?",
+					(rs, rowNum) -> new SessionEntity(rs.getString("ID"), rs.getLong("USER_ID"), rs.getString("USER_NAME"),
+							rs.getLong("DASHBOARD_VERSION"), rs.getLong("LAST_ACCESS")),
+					id);
+			return sessions.isEmpty() ? null : sessions.get(0);
+		} catch (Exception ex) {
+			logger.error("Error occurred while fetching session", ex);
+		}
+		return null;
+	}
+
+	@Override
+	public boolean save(SessionEntity session) {
+		try {
+			// Update first as most saves touch an existing session
+			var count = jdbcTemplate.update(
+					"UPDATE USER_SESSIONS SET USER_ID = ?, USER_NAME = ?, DASHBOARD_VERSION = ?, LAST_ACCESS = ? WHERE ID = ?",
+					session.getUserId(), session.getUserName(), session.getDashboardVersion(), session.getLastAccess(),
+					session.getId());
+			if (count == 0) {
+				jdbcTemplate.update(
+						"INSERT INTO USER_SESSIONS (ID, USER_ID, USER_NAME, DASHBOARD_VERSION, LAST_ACCESS) VALUES (?, ?, ?, ?, ?)",
+						session.getId(), session.getUserId(), session.getUserName(), session.getDashboardVersion(),
+						session.getLastAccess());
+			}
+		} catch (Exception ex) {
+			logger.error("Error occurred while saving session for user: {}", session.getUserName(), ex);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean touch(String id, long lastAccess) {
+		try {
+			// Only LAST_ACCESS is written, and never moved backwards
+			jdbcTemplate.update("UPDATE USER_SESSIONS SET LAST_ACCESS = ? WHERE ID = ? AND LAST_ACCESS < ?", lastAccess, id,
+					lastAccess);
+		} catch (Exception ex) {
+			logger.error("Error occurred while touching session", ex);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	@Transactional
+	public long nextDashboardVersion(String id) {
+		try {
+			// The update locks the row until commit, so the read returns this caller's version
+			var count = jdbcTemplate.update("UPDATE USER_SESSIONS SET DASHBOARD_VERSION = DASHBOARD_VERSION + 1 WHERE ID = ?",
+					id);
+			if (count == 0) {
+				return -1;
+			}
+			return jdbcTemplate.queryForObject("SELECT DASHBOARD_VERSION FROM USER_SESSIONS WHERE ID = ?", Long.class, id);
+		} catch (Exception ex) {
+			logger.error("Error occurred while moving session dashboard version", ex);
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean delete(String id) {
+		try {
+			jdbcTemplate.update("DELETE FROM USER_SESSIONS WHERE ID = ?", id);
+		} catch (Exception ex) {
+			logger.error("Error occurred while deleting session", ex);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int deleteExpired(long lastAccessBefore) {
+		try {
+			return jdbcTemplate.update("DELETE FROM USER_SESSIONS WHERE LAST_ACCESS < ?", lastAccessBefore);
+		} catch (Exception ex) {
+			logger.error("Error occurred while deleting expired sessions", ex);
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,158 @@
+package com.bookstore.data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.bookstore.data.entity.OrderEntity;
+import com.bookstore.data.entity.SellerSummaryEntity;
+import com.bookstore.data.repository.OrderRepository;
+import com.bookstore.data.repository.SellerSummaryRepository;
+
+/**
+ * Order ledger and seller totals repo management class
+ */
+@Service("OrderDataService")
+public class OrderDataService implements DataAccessInterface<OrderEntity> {
+
+	private static final Logger logger = LogManager.getLogger(OrderDataService.class);
+
+	@Autowired
+	private OrderRepository orderRepo;
+
+	@Autowired
+	private SellerSummaryRepository summaryRepo;
+
+	/**
+	 * Construct Order Data Service
+	 */
+	public OrderDataService() {
+
+	}
+
+	/**
+	 * Find all orders
+	 */
+	@Override
+	public List<OrderEntity> findAll() {
+		var orders = new ArrayList<OrderEntity>();
+		try {
+			var iter = orderRepo.findAll();
+			iter.forEach(orders::add);
+			logger.debug("Fetched all orders, total count: {}", orders.size());
+		} catch (Exception ex) {
+			logger.error("Error occurred while fetching all orders", ex);
+		}
+
+		return orders;
+	}
+
+	/**
+	 * Find order for id
+	 */
+	@Override
+	public OrderEntity findById(long id) {
+		try {
+			var order = orderRepo.findById(id);
+			if (order.isPresent()) {
+				logger.debug("Order found with ID: {}", id);
+				return order.get();
+			} else {
+				logger.warn("No order found with ID: {}", id);
+			}
+		} catch (Exception ex) {
+			logger.error("Error occurred while fetching order with ID: {}", id, ex);
+		}
+
+		return null;
+	}
+
+	/**
+	 * create new order
+	 */
+	@Override
+	public OrderEntity create(OrderEntity order) {
+		try {
+			var savedOrder = orderRepo.save(order);
+			logger.debug("Successfully created new order for book: {}", order.getBook());
+			return savedOrder;
+		} catch (Exception ex) {
+			logger.error("Error occurred while creating order for book: {}", order.getBook(), ex);
+		}
+		return null;
+	}
+
+	/**
+	 * Orders are an append only ledger. Corrections are new orders.
+	 */
+	@Override
+	public boolean update(OrderEntity order) {
+		logger.warn("Orders can not be updated: {}", order.getId());
+		return false;
+	}
+
+	/**
+	 * Orders are an append only ledger. Corrections are new orders.
+	 */
+	@Override
+	public boolean delete(OrderEntity order) {
+		logger.warn("Orders can not be deleted: {}", order.getId());
+		return false;
+	}
+
+	/**
+	 * Add an order to the running totals of its seller
+	 * @param order order
+	 * @return success or fail
+	 */
+	public boolean addSale(OrderEntity order) {
+		try {
+			summaryRepo.addSale(order.getSeller(), order.getPrice().multiply(BigDecimal.valueOf(order.getQuantity())),
+					order.getQuantity());
+			logger.debug("Updated sales totals for seller: {}", order.getSeller());
+		} catch (Exception ex) {
+			logger.error("Error occurred while updating sales totals for seller: {}", order.getSeller(), ex);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Remove the running totals of a seller. Orders stay in the ledger.
+	 * @param seller seller id
+	 * @return success or fail
+	 */
+	public boolean deleteSellerSummary(long seller) {
+		try {
+			summaryRepo.deleteById(seller);
+			logger.debug("Deleted sales totals for seller: {}", seller);
+		} catch (Exception ex) {
+			logger.error("Error occurred while deleting sales totals for seller: {}", seller, ex);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Find the running totals of a seller
+	 * @param seller seller id
+	 * @return totals or null when nothing is sold yet
+	 */
+	public SellerSummaryEntity findSellerSummary(long seller) {
+		try {
+			var summary = summaryRepo.findById(seller);
+			if (summary.isPresent()) {
+				return summary.get();
+			}
+			logger.debug("No sales totals for seller: {}", seller);
+		} catch (Exception ex) {
+			logger.error("Error occurred while fetching sales totals for seller: {}", seller, ex);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,52 @@
+package com.bookstore.data;
+
+import com.bookstore.data.entity.SessionEntity;
+
+/**
+ * Storage for compact session records
+ */
+public interface SessionStoreInterface {
+	/**
+	 * Find a session record
+	 * @param id session token
+	 * @return record or null
+	 */
+	public SessionEntity find(String id);
+
+	/**
+	 * Create or replace a session record
+	 * @param session record
+	 * @return success or fail
+	 */
+	public boolean save(SessionEntity session);
+
+	/**
+	 * Record the last use of a session without writing the rest of the record
+	 * @param id session token
+	 * @param lastAccess epoch milliseconds
+	 * @return success or fail
+	 */
+	public boolean touch(String id, long lastAccess);
+
+	/**
+	 * Move a session to its next dashboard version in one step, so concurrent
+	 * requests never write back an older version
+	 * @param id session token
+	 * @return new version, or -1 if the session is gone or the update failed
+	 */
+	public long nextDashboardVersion(String id);
+
+	/**
+	 * Remove a session record
+	 * @param id session token
+	 * @return success or fail
+	 */
+	public boolean delete(String id);
+
+	/**
+	 * Remove session records not accessed since a time
+	 * @param lastAccessBefore epoch milliseconds
+	 * @return records removed
+	 */
+	public int deleteExpired(long lastAccessBefore);
+}
@@ -7,12 +7,16 @@ import java.util.Optional;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Repository;
 import org.springframework.stereotype.Service;
 
+import com.bookstore.configs.CacheConfiguration;
 import com.bookstore.data.entity.UserEntity;
 import com.bookstore.data.repository.UserRepository;
 
@@ -66,7 +70,7 @@ public class UserDataService implements DataAccessInterface<UserEntity>{
 		try {
 			var iter = userRepo.findAll();
 			iter.forEach(users::add);
-			logger.info("Fetched all users, total count: {}", users.size());
+			logger.debug("Fetched all users, total count: {}", users.size());
 		} catch(Exception ex) {
 			ex.printStackTrace();
 			logger.error("Error occurred while fetching all users", ex);
@@ -75,6 +79,64 @@ public class UserDataService implements DataAccessInterface<UserEntity>{
 		return users;
 	}
 
+	/**
+	 * Find user by unique user name. Uses the unique NAME index instead of a table scan.
+	 * @param userName user name
+	 * @return user or null
+	 */
+	public UserEntity findByUserName(String userName) {
+		try {
+			var user = userRepo.findByUserName(userName);
+			if (user.isPresent()) {
+				logger.debug("User found with name: {}", userName);
+				return user.get();
+			} else {
+				logger.warn("No user found with name: {}", userName);
+			}
+		} catch (Exception ex) {
+			logger.error("Error occurred while fetching user with name: {}", userName, ex);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Find the id of a user by name. Results are kept in a bounded cache.
+	 * @param userName user name
+	 * @return id or null if not found
+	 */
+	@Cacheable(cacheNames = CacheConfiguration.USER_IDS, key = "#userName", unless = "#result == null")
+	public Long findIdByUserName(String userName) {
+		var user = findByUserName(userName);
+		return user != null ? user.getId() : null;
+	}
+
+	/**
+	 * Replace the password hash of a user without touching the other columns
+	 * @param userName user name
+	 * @param password new password hash
+	 * @return true if updated
+	 */
+	public boolean updatePassword(String userName, String password) {
+		try {
+			return userRepo.updatePassword(userName, password) == 1;
+		} catch (Exception ex) {
+			logger.error("Error occurred while updating password for user: {}", userName, ex);
+		}
+		return false;
+	}
+
+	/**
+	 * Find the name of a user by id. Results are kept in a bounded cache.
+	 * @param id user id
+	 * @return user name or null if not found
+	 */
+	@Cacheable(cacheNames = CacheConfiguration.USER_NAMES, key = "#id", unless = "#result == null")
+	public String findUserNameById(long id) {
+		var user = findById(id);
+		return user != null ? user.getUserName() : null;
+	}
+
 	/**
 	 * find user with id 
 	 */
@@ -83,7 +145,7 @@ public class UserDataService implements DataAccessInterface<UserEntity>{
 		try {
 			var user = userRepo.findById(id);
 			if (user.isPresent()) {
-				logger.info("User found with ID: {}", id);
+				logger.debug("User found with ID: {}", id);
 				return user.get();
 			} else {
 				logger.warn("No user found with ID: {}", id);
@@ -102,7 +164,7 @@ public class UserDataService implements DataAccessInterface<UserEntity>{
 	@Override
 	public UserEntity create(UserEntity user) {
 		try {
-			logger.info("Successfully created new user: {}", user.getUserName());
+			logger.debug("Successfully created new user: {}", user.getUserName());
 			return userRepo.save(user);
 		}catch(Exception ex) {
 			logger.error("Error occurred while creating user: {}", user.getUserName(), ex);
@@ -115,10 +177,12 @@ public class UserDataService implements DataAccessInterface<UserEntity>{
 	 * Update an existing user
 	 */
 	@Override
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfiguration.USER_IDS, key = "#user.userName"),
+			@CacheEvict(cacheNames = CacheConfiguration.USER_NAMES, key = "#user.id") })
 	public boolean update(UserEntity user) {
 		try {
 			userRepo.save(user);
-			logger.info("Successfully updated user: {}", user.getUserName());
+			logger.debug("Successfully updated user: {}", user.getUserName());
 		}catch(Exception ex) {
 			logger.error("Error occurred while updating user: {}", user.getUserName(), ex);
 			ex.printStackTrace();
@@ -131,10 +195,12 @@ public class UserDataService implements DataAccessInterface<UserEntity>{
 	 * delete a user from  db
 	 */
 	@Override
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfiguration.USER_IDS, key = "#user.userName"),
+			@CacheEvict(cacheNames = CacheConfiguration.USER_NAMES, key = "#user.id") })
 	public boolean delete(UserEntity user) {
 		try {
 			userRepo.delete(user);
-			logger.info("Successfully deleted user: {}", user.getUserName());
+			logger.debug("Successfully deleted user: {}", user.getUserName());
 		}catch(Exception ex) {
 			logger.error("Error occurred while deleting user: {}", user.getUserName(), ex);
 			ex.printStackTrace();
@@ -3,6 +3,7 @@ package com.bookstore.data.entity;
 import java.util.Date;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -15,7 +16,8 @@ public class BookEntity {
 	private long id;
 	
 	@Column("BOOK_ID")
-	private String bookId;
+	@ReadOnlyProperty
+	private String bookId; // legacy column, the public id is derived from id
 	
 	@Column("NAME")
 	private String name;
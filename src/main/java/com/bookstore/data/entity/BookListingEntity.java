@@ -0,0 +1,47 @@
+package com.bookstore.data.entity;
+
+import java.util.Date;
+
+/**
+ * Read only book row joined with the owner user name.
+ * Used for listings so the owner does not need a separate lookup.
+ */
+public class BookListingEntity extends BookEntity {
+
+	private String ownerName;
+
+	/**
+	 * Create BookListingEntity object from database 
+	 * @param id db id field
+	 * @param bookId generated book id
+	 * @param name name
+	 * @param author author
+	 * @param publishDate date
+	 * @param description description
+	 * @param price price
+	 * @param quantity quantity
+	 * @param owner owner
+	 * @param ownerName owner user name
+	 */
+	public BookListingEntity(long id, String bookId, String name, String author, Date publishDate, String description,
+			float price, int quantity, long owner, String ownerName) {
+		super(id, bookId, name, author, publishDate, description, price, quantity, owner);
+		this.ownerName = ownerName;
+	}
+
+	/**
+	 * Get owner user name
+	 * @return user name
+	 */
+	public String getOwnerName() {
+		return ownerName;
+	}
+
+	/**
+	 * Set owner user name
+	 * @param ownerName user name
+	 */
+	public void setOwnerName(String ownerName) {
+		this.ownerName = ownerName;
+	}
+}
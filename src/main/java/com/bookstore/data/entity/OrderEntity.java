@@ -0,0 +1,168 @@
+package com.bookstore.data.entity;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Database entity class for an order in the ledger
+ */
+@Table("ORDERS")
+public class OrderEntity {
+	@Id
+	private long id;
+
+	@Column("BOOK")
+	private long book;
+
+	@Column("SELLER")
+	private long seller;
+
+	@Column("BUYER")
+	private long buyer;
+
+	@Column("QUANTITY")
+	private int quantity;
+
+	@Column("PRICE")
+	private BigDecimal price;
+
+	@Column("ORDER_DATE")
+	private Date orderDate;
+
+	/**
+	 * Create OrderEntity object from database
+	 * @param id db id field
+	 * @param book book id
+	 * @param seller seller user id
+	 * @param buyer buyer user id
+	 * @param quantity units bought
+	 * @param price unit price at order time
+	 * @param orderDate date
+	 */
+	public OrderEntity(long id, long book, long seller, long buyer, int quantity, BigDecimal price, Date orderDate) {
+		super();
+		this.id = id;
+		this.book = book;
+		this.seller = seller;
+		this.buyer = buyer;
+		this.quantity = quantity;
+		this.price = price;
+		this.orderDate = orderDate;
+	}
+
+	/**
+	 * Get the id from db index
+	 * @return id
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Set the id
+	 * @param id id
+	 */
+	public void setId(long id) {
+		this.id = id;
+	}
+
+	/**
+	 * Get ordered book id
+	 * @return book id
+	 */
+	public long getBook() {
+		return book;
+	}
+
+	/**
+	 * Set ordered book id
+	 * @param book book id
+	 */
+	public void setBook(long book) {
+		this.book = book;
+	}
+
+	/**
+	 * Get seller user id
+	 * @return seller
+	 */
+	public long getSeller() {
+		return seller;
+	}
+
+	/**
+	 * Set seller user id
+	 * @param seller seller
+	 */
+	public void setSeller(long seller) {
+		this.seller = seller;
+	}
+
+	/**
+	 * Get buyer user id
+	 * @return buyer
+	 */
+	public long getBuyer() {
+		return buyer;
+	}
+
+	/**
+	 * Set buyer user id
+	 * @param buyer buyer
+	 */
+	public void setBuyer(long buyer) {
+		this.buyer = buyer;
+	}
+
+	/**
+	 * Get units bought
+	 * @return quantity
+	 */
+	public int getQuantity() {
+		return quantity;
+	}
+
+	/**
+	 * Set units bought
+	 * @param quantity quantity
+	 */
+	public void setQuantity(int quantity) {
+		this.quantity = quantity;
+	}
+
+	/**
+	 * Get unit price at order time
+	 * @return price
+	 */
+	public BigDecimal getPrice() {
+		return price;
+	}
+
+	/**
+	 * Set unit price at order time
+	 * @param price price
+	 */
+	public void setPrice(BigDecimal price) {
+		this.price = price;
+	}
+
+	/**
+	 * Get order date
+	 * @return date
+	 */
+	public Date getOrderDate() {
+		return orderDate;
+	}
+
+	/**
+	 * Set order date
+	 * @param orderDate date
+	 */
+	public void setOrderDate(Date orderDate) {
+		this.orderDate = orderDate;
+	}
+}
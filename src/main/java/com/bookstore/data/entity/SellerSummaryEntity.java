@@ -0,0 +1,85 @@
+package com.bookstore.data.entity;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Database entity class for the running sales totals of a seller.
+ * Rows are updated at order time so totals never need to be aggregated from orders.
+ */
+@Table("SELLER_SUMMARY")
+public class SellerSummaryEntity {
+	@Id
+	@Column("SELLER")
+	private long seller;
+
+	@Column("PROFIT")
+	private BigDecimal profit;
+
+	@Column("UNITS_SOLD")
+	private long unitsSold;
+
+	/**
+	 * Create SellerSummaryEntity object from database
+	 * @param seller seller user id
+	 * @param profit total sales amount
+	 * @param unitsSold total units sold
+	 */
+	public SellerSummaryEntity(long seller, BigDecimal profit, long unitsSold) {
+		super();
+		this.seller = seller;
+		this.profit = profit;
+		this.unitsSold = unitsSold;
+	}
+
+	/**
+	 * Get seller user id
+	 * @return seller
+	 */
+	public long getSeller() {
+		return seller;
+	}
+
+	/**
+	 * Set seller user id
+	 * @param seller seller
+	 */
+	public void setSeller(long seller) {
+		this.seller = seller;
+	}
+
+	/**
+	 * Get total sales amount
+	 * @return profit
+	 */
+	public BigDecimal getProfit() {
+		return profit;
+	}
+
+	/**
+	 * Set total sales amount
+	 * @param profit profit
+	 */
+	public void setProfit(BigDecimal profit) {
+		this.profit = profit;
+	}
+
+	/**
+	 * Get total units sold
+	 * @return units
+	 */
+	public long getUnitsSold() {
+		return unitsSold;
+	}
+
+	/**
+	 * Set total units sold
+	 * @param unitsSold units
+	 */
+	public void setUnitsSold(long unitsSold) {
+		this.unitsSold = unitsSold;
+	}
+}
@@ -0,0 +1,86 @@
+package com.bookstore.data.entity;
+
+/**
+ * Compact record of a logged in session. Everything else is derived from it on demand,
+ * so any application node can serve any request of the session.
+ */
+public class SessionEntity {
+	private String id; // random token sent in the session cookie
+	private long userId;
+	private String userName;
+	private long dashboardVersion; // changes whenever the cached dashboard is no longer valid
+	private long lastAccess; // epoch milliseconds
+
+	/**
+	 * Create a session record
+	 * @param id session token
+	 * @param userId user id
+	 * @param userName user name
+	 * @param dashboardVersion dashboard version
+	 * @param lastAccess last access time in epoch milliseconds
+	 */
+	public SessionEntity(String id, long userId, String userName, long dashboardVersion, long lastAccess) {
+		super();
+		this.id = id;
+		this.userId = userId;
+		this.userName = userName;
+		this.dashboardVersion = dashboardVersion;
+		this.lastAccess = lastAccess;
+	}
+
+	/**
+	 * Get session token
+	 * @return id
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Get user id
+	 * @return user id
+	 */
+	public long getUserId() {
+		return userId;
+	}
+
+	/**
+	 * Get user name
+	 * @return user name
+	 */
+	public String getUserName() {
+		return userName;
+	}
+
+	/**
+	 * Get dashboard version
+	 * @return version
+	 */
+	public long getDashboardVersion() {
+		return dashboardVersion;
+	}
+
+	/**
+	 * Set dashboard version
+	 * @param dashboardVersion version
+	 */
+	public void setDashboardVersion(long dashboardVersion) {
+		this.dashboardVersion = dashboardVersion;
+	}
+
+	/**
+	 * Get last access time
+	 * @return epoch milliseconds
+	 */
+	public long getLastAccess() {
+		return lastAccess;
+	}
+
+	/**
+	 * Set last access time
+	 * @param lastAccess epoch milliseconds
+	 */
+	public void setLastAccess(long lastAccess) {
+		this.lastAccess = lastAccess;
+	}
+}
@@ -0,0 +1,28 @@
+package com.bookstore.data.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.bookstore.data.entity.BookListingEntity;
+
+/**
+ * Maps a BOOKS join USERS row to a listing entity
+ */
+public class BookListingRowMapper implements RowMapper<BookListingEntity> {
+
+	/**
+	 * Create the row mapper
+	 */
+	public BookListingRowMapper() {
+
+	}
+
+	@Override
+	public BookListingEntity mapRow(ResultSet rs, int rowNum) throws SQLException {
+		return new BookListingEntity(rs.getLong("ID"), rs.getString("BOOK_ID"), rs.getString("NAME"),
+				rs.getString("AUTHOR"), rs.getTimestamp("PUBLISH_DATE"), rs.getString("DESCRIPTION"),
+				rs.getFloat("PRICE"), rs.getInt("QUANTITY"), rs.getLong("OWNER"), rs.getString("OWNER_NAME"));
+	}
+}
@@ -1,9 +1,16 @@
 package com.bookstore.data.repository;
 
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bookstore.data.entity.BookEntity;
+import com.bookstore.data.entity.BookListingEntity;
 
 /**
  * Repo for Book DB
@@ -11,4 +18,94 @@ import com.bookstore.data.entity.BookEntity;
 @Repository
 public interface BookRepository extends CrudRepository<BookEntity, Long>{
 
+	/**
+	 * Book columns joined with the owner user name
+	 */
+	String LISTING_SELECT = "SELECT b.ID, b.BOOK_ID, b.NAME, b.AUTHOR, b.PUBLISH_DATE, b.DESCRIPTION, b.PRICE, b.QUANTITY, b.OWNER, u.NAME AS OWNER_NAME"
+			+ " FROM BOOKS b JOIN USERS u ON u.ID = b.OWNER";
+
+	/**
+	 * Find books listed by an owner. Uses the OWNER index.
+	 * @param owner owner id
+	 * @return books
+	 */
+	List<BookEntity> findByOwner(long owner);
+
+	/**
+	 * Find the first books listed by an owner in id order. Uses the OWNER index.
+	 * @param owner owner id
+	 * @param limit maximum rows
+	 * @return books
+	 */
+	@Query("SELECT * FROM BOOKS WHERE OWNER = :owner ORDER BY ID LIMIT :limit")
+	List<BookEntity> findFirstByOwner(@Param("owner") long owner, @Param("limit") int limit);
+
+	/**
+	 * Find the page of books after a given id together with the owner names, ordered by id
+	 * @param afterId last id of the previous page, 0 for the first page
+	 * @param limit maximum rows
+	 * @return book listings
+	 */
+	@Query(value = LISTING_SELECT + " WHERE b.ID > :afterId ORDER BY b.ID LIMIT :limit", rowMapperClass = BookListingRowMapper.class)
+	List<BookListingEntity> findListingsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+	/**
+	 * Find the page of books after a given id listed by anyone except the owner, ordered by id
+	 * @param owner owner id
+	 * @param afterId last id of the previous page, 0 for the first page
+	 * @param limit maximum rows
+	 * @return book listings
+	 */
+	@Query(value = LISTING_SELECT + " WHERE b.OWNER <> :owner AND b.ID > :afterId ORDER BY b.ID LIMIT :limit", rowMapperClass = BookListingRowMapper.class)
+	List<BookListingEntity> findListingsByOwnerNotAfter(@Param("owner") long owner, @Param("afterId") long afterId,
+			@Param("limit") int limit);
+
+	/**
+	 * Update a book in one statement. Only matches when the book belongs to the owner
+	 * @param id book id
+	 * @param owner owner id
+	 * @param name name
+	 * @param author author
+	 * @param publishDate date
+	 * @param description description
+	 * @param price price
+	 * @param quantity quantity
+	 * @return rows updated
+	 */
+	@Modifying
+	@Query("UPDATE BOOKS SET NAME = :name, AUTHOR = :author, PUBLISH_DATE = :publishDate, DESCRIPTION = :description,"
+			+ " PRICE = :price, QUANTITY = :quantity WHERE ID = :id AND OWNER = :owner")
+	int updateForOwner(@Param("id") long id, @Param("owner") long owner, @Param("name") String name,
+			@Param("author") String author, @Param("publishDate") Date publishDate,
+			@Param("description") String description, @Param("price") float price, @Param("quantity") int quantity);
+
+	/**
+	 * Take units out of stock in one statement. Only matches when enough units are left
+	 * @param id book id
+	 * @param quantity units
+	 * @return rows updated
+	 */
+	@Modifying
+	@Query("UPDATE BOOKS SET QUANTITY = QUANTITY - :quantity WHERE ID = :id AND QUANTITY >= :quantity")
+	int takeStock(@Param("id") long id, @Param("quantity") int quantity);
+
+	/**
+	 * Delete a book in one statement. Only matches when the book belongs to the owner
+	 * @param id book id
+	 * @param owner owner id
+	 * @return rows deleted
+	 */
+	@Modifying
+	@Query("DELETE FROM BOOKS WHERE ID = :id AND OWNER = :owner")
+	int deleteForOwner(@Param("id") long id, @Param("owner") long owner);
+
+	/**
+	 * Delete up to limit books of an owner in one statement
+	 * @param owner owner id
+	 * @param limit maximum rows to delete
+	 * @return rows deleted
+	 */
+	@Modifying
+	@Query("DELETE FROM BOOKS WHERE OWNER = :owner LIMIT :limit")
+	int deleteByOwner(@Param("owner") long owner, @Param("limit") int limit);
 }
@@ -0,0 +1,14 @@
+package com.bookstore.data.repository;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import com.bookstore.data.entity.OrderEntity;
+
+/**
+ * Repo for Order DB
+ */
+@Repository
+public interface OrderRepository extends CrudRepository<OrderEntity, Long>{
+
+}
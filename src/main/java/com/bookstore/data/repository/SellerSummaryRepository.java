@@ -0,0 +1,30 @@
+package com.bookstore.data.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bookstore.data.entity.SellerSummaryEntity;
+
+/**
+ * Repo for seller sales totals DB
+ */
+@Repository
+public interface SellerSummaryRepository extends CrudRepository<SellerSummaryEntity, Long>{
+
+	/**
+	 * Add one order to the totals of a seller, creating the row on first sale
+	 * @param seller seller id
+	 * @param amount order amount
+	 * @param units units sold
+	 * @return rows changed
+	 */
+	@Modifying
+	@Query("INSERT INTO SELLER_SUMMARY (SELLER, PROFIT, UNITS_SOLD) VALUES (:seller, :amount, :units)"
+			+ " ON DUPLICATE KEY UPDATE PROFIT = PROFIT + :amount, UNITS_SOLD = UNITS_SOLD + :units")
+	int addSale(@Param("seller") long seller, @Param("amount") BigDecimal amount, @Param("units") int units);
+}
@@ -1,6 +1,9 @@
 package com.bookstore.data.repository;
 
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bookstore.data.entity.UserEntity;
@@ -14,4 +17,14 @@ import java.util.Optional;
 public interface UserRepository extends CrudRepository<UserEntity, Long>{
     Optional<UserEntity> findByUserName(String userName);
 
+    /**
+     * Replace the password hash of a user
+     * @param userName user name
+     * @param password new password hash
+     * @return number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE USERS SET PASSWORD = :password WHERE NAME = :userName")
+    int updatePassword(@Param("userName") String userName, @Param("password") String password);
+
 }
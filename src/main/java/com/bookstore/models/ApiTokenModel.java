@@ -0,0 +1,36 @@
+package com.bookstore.models;
+
+/**
+ * Class to return a REST API bearer token.
+ * Since it does not accept any form information, validation is not needed.
+ */
+public class ApiTokenModel {
+	private String token;
+	private long expiresIn;
+
+	/**
+	 * Create API token object
+	 * @param token bearer token
+	 * @param expiresIn seconds until the token expires
+	 */
+	public ApiTokenModel(String token, long expiresIn) {
+		this.token = token;
+		this.expiresIn = expiresIn;
+	}
+
+	/**
+	 * Get bearer token
+	 * @return token
+	 */
+	public String getToken() {
+		return token;
+	}
+
+	/**
+	 * Get seconds until the token expires
+	 * @return seconds
+	 */
+	public long getExpiresIn() {
+		return expiresIn;
+	}
+}
@@ -0,0 +1,62 @@
+package com.bookstore.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of books for keyset paginated listings.
+ * Since it does not accept any form information, validation is not needed.
+ */
+public class BookPageModel {
+	private List<BookModel> books = new ArrayList<BookModel>();
+	private String nextToken; // continuation token, null on last page
+
+	/**
+	 * Create an empty book page
+	 */
+	public BookPageModel() {
+
+	}
+
+	/**
+	 * Create a book page
+	 * @param books books in the page
+	 * @param nextToken token for the following page or null
+	 */
+	public BookPageModel(List<BookModel> books, String nextToken) {
+		this.books = books;
+		this.nextToken = nextToken;
+	}
+
+	/**
+	 * Get the books in this page
+	 * @return books
+	 */
+	public List<BookModel> getBooks() {
+		return books;
+	}
+
+	/**
+	 * Set the books in this page
+	 * @param books books
+	 */
+	public void setBooks(List<BookModel> books) {
+		this.books = books;
+	}
+
+	/**
+	 * Get the continuation token for the next page
+	 * @return token or null when there are no more pages
+	 */
+	public String getNextToken() {
+		return nextToken;
+	}
+
+	/**
+	 * Set the continuation token for the next page
+	 * @param nextToken token
+	 */
+	public void setNextToken(String nextToken) {
+		this.nextToken = nextToken;
+	}
+}
@@ -0,0 +1,80 @@
+package com.bookstore.models;
+
+/**
+ * Class to report usage statistics of one cache.
+ * Since it does not accept any form information, validation is not needed.
+ */
+public class CacheStatsModel {
+	private String name;
+	private long size;
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+	private double hitRate;
+
+	/**
+	 * Create cache statistics object
+	 * @param name cache name
+	 * @param size estimated entries
+	 * @param hitCount hits
+	 * @param missCount misses
+	 * @param evictionCount entries evicted by size or expiry
+	 * @param hitRate hits over requests
+	 */
+	public CacheStatsModel(String name, long size, long hitCount, long missCount, long evictionCount, double hitRate) {
+		this.name = name;
+		this.size = size;
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.hitRate = hitRate;
+	}
+
+	/**
+	 * Get cache name
+	 * @return name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get estimated number of entries
+	 * @return size
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Get number of cache hits
+	 * @return hits
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Get number of cache misses
+	 * @return misses
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Get number of entries evicted by size or expiry
+	 * @return evictions
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Get ratio of hits over requests
+	 * @return hit rate
+	 */
+	public double getHitRate() {
+		return hitRate;
+	}
+}
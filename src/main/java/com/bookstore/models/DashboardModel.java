@@ -1,5 +1,6 @@
 package com.bookstore.models;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,7 +9,8 @@ import java.util.List;
  * Since it does not accept any form information, validation is not needed.
  */
 public class DashboardModel {
-	private float profit;
+	private BigDecimal profit = BigDecimal.ZERO;
+	private long unitsSold;
 	private List<BookModel> booksOwned = new ArrayList<BookModel>();
 	
 	//private List<InvoiceModel> shippingInvoice = new ArrayList<InvoiceModel>();
@@ -25,7 +27,7 @@ public class DashboardModel {
 	 * Get profit for the user
 	 * @return profit
 	 */
-	public float getProfit() {
+	public BigDecimal getProfit() {
 		return profit;
 	}
 	
@@ -33,10 +35,26 @@ public class DashboardModel {
 	 * Set profit for the user
 	 * @param profit profit
 	 */
-	public void setProfit(float profit) {
+	public void setProfit(BigDecimal profit) {
 		this.profit = profit;
 	}
 	
+	/**
+	 * Get units sold by the user
+	 * @return units sold
+	 */
+	public long getUnitsSold() {
+		return unitsSold;
+	}
+	
+	/**
+	 * Set units sold by the user
+	 * @param unitsSold units sold
+	 */
+	public void setUnitsSold(long unitsSold) {
+		this.unitsSold = unitsSold;
+	}
+	
 	/**
 	 * Get the list of books owned by this user
 	 * @return books list
@@ -0,0 +1,86 @@
+package com.bookstore.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class to report the outcome of a bulk book import.
+ * Since it does not accept any form information, validation is not needed.
+ */
+public class ImportResultModel {
+	private long rowsRead;
+	private long rowsImported;
+	private long rowsFailed;
+	private List<String> errors = new ArrayList<String>(); // first errors with row numbers
+
+	/**
+	 * Create an empty import result
+	 */
+	public ImportResultModel() {
+
+	}
+
+	/**
+	 * Get the number of data rows read from the file
+	 * @return rows read
+	 */
+	public long getRowsRead() {
+		return rowsRead;
+	}
+
+	/**
+	 * Set the number of data rows read from the file
+	 * @param rowsRead rows read
+	 */
+	public void setRowsRead(long rowsRead) {
+		this.rowsRead = rowsRead;
+	}
+
+	/**
+	 * Get the number of books inserted
+	 * @return rows imported
+	 */
+	public long getRowsImported() {
+		return rowsImported;
+	}
+
+	/**
+	 * Set the number of books inserted
+	 * @param rowsImported rows imported
+	 */
+	public void setRowsImported(long rowsImported) {
+		this.rowsImported = rowsImported;
+	}
+
+	/**
+	 * Get the number of rows rejected
+	 * @return rows failed
+	 */
+	public long getRowsFailed() {
+		return rowsFailed;
+	}
+
+	/**
+	 * Set the number of rows rejected
+	 * @param rowsFailed rows failed
+	 */
+	public void setRowsFailed(long rowsFailed) {
+		this.rowsFailed = rowsFailed;
+	}
+
+	/**
+	 * Get the per row error messages. Only the first errors are kept.
+	 * @return errors
+	 */
+	public List<String> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * Set the per row error messages
+	 * @param errors errors
+	 */
+	public void setErrors(List<String> errors) {
+		this.errors = errors;
+	}
+}
@@ -0,0 +1,38 @@
+package com.bookstore.models;
+
+import java.math.BigDecimal;
+
+/**
+ * Class for sales totals of a seller.
+ * Since it does not accept any form information, validation is not needed.
+ */
+public class SalesSummaryModel {
+	private BigDecimal profit;
+	private long unitsSold;
+
+	/**
+	 * Create sales summary object
+	 * @param profit total sales amount
+	 * @param unitsSold total units sold
+	 */
+	public SalesSummaryModel(BigDecimal profit, long unitsSold) {
+		this.profit = profit;
+		this.unitsSold = unitsSold;
+	}
+
+	/**
+	 * Get total sales amount
+	 * @return profit
+	 */
+	public BigDecimal getProfit() {
+		return profit;
+	}
+
+	/**
+	 * Get total units sold
+	 * @return units
+	 */
+	public long getUnitsSold() {
+		return unitsSold;
+	}
+}
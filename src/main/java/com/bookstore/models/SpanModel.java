@@ -0,0 +1,94 @@
+package com.bookstore.models;
+
+import java.util.Map;
+
+/**
+ * Class to report one finished trace span.
+ * Since it does not accept any form information, validation is not needed.
+ */
+public class SpanModel {
+	private String traceId;
+	private String spanId;
+	private String parentId;
+	private String name;
+	private long startMillis;
+	private long durationMicros;
+	private Map<String, String> attributes;
+
+	/**
+	 * Create span object
+	 * @param traceId trace id
+	 * @param spanId span id
+	 * @param parentId parent span id
+	 * @param name span name
+	 * @param startMillis start time in epoch milliseconds
+	 * @param durationMicros duration in microseconds
+	 * @param attributes span attributes
+	 */
+	public SpanModel(String traceId, String spanId, String parentId, String name, long startMillis,
+			long durationMicros, Map<String, String> attributes) {
+		this.traceId = traceId;
+		this.spanId = spanId;
+		this.parentId = parentId;
+		this.name = name;
+		this.startMillis = startMillis;
+		this.durationMicros = durationMicros;
+		this.attributes = attributes;
+	}
+
+	/**
+	 * Get trace id
+	 * @return id
+	 */
+	public String getTraceId() {
+		return traceId;
+	}
+
+	/**
+	 * Get span id
+	 * @return id
+	 */
+	public String getSpanId() {
+		return spanId;
+	}
+
+	/**
+	 * Get parent span id
+	 * @return id, all zeros for the root span
+	 */
+	public String getParentId() {
+		return parentId;
+	}
+
+	/**
+	 * Get span name
+	 * @return name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get start time
+	 * @return epoch milliseconds
+	 */
+	public long getStartMillis() {
+		return startMillis;
+	}
+
+	/**
+	 * Get duration
+	 * @return microseconds
+	 */
+	public long getDurationMicros() {
+		return durationMicros;
+	}
+
+	/**
+	 * Get span attributes
+	 * @return attributes
+	 */
+	public Map<String, String> getAttributes() {
+		return attributes;
+	}
+}
@@ -0,0 +1,33 @@
+-- Schema changes backing the custom repository queries and write paths.
+-- Apply once, in order, against the application schema (MySQL).
+
+-- BookRepository.findByOwner / findListingsByOwnerNotAfter / deleteByOwner
+CREATE INDEX IDX_BOOKS_OWNER ON BOOKS (OWNER);
+
+-- UserRepository.findByUserName (user names are unique)
+CREATE UNIQUE INDEX UX_USERS_NAME ON USERS (NAME);
+
+-- BOOK_ID is no longer written on insert. The public BK id is derived from ID.
+ALTER TABLE BOOKS MODIFY BOOK_ID VARCHAR(20) NULL;
+
+-- Order ledger. Append only, one row per order.
+CREATE TABLE ORDERS (
+	ID BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+	BOOK BIGINT NOT NULL,
+	SELLER BIGINT NOT NULL,
+	BUYER BIGINT NOT NULL,
+	QUANTITY INT NOT NULL,
+	PRICE DECIMAL(15,2) NOT NULL,
+	ORDER_DATE DATETIME NOT NULL,
+	INDEX IDX_ORDERS_SELLER (SELLER),
+	INDEX IDX_ORDERS_BUYER (BUYER)
+);
+
+-- Running totals per seller, updated in the same transaction as each order
+CREATE TABLE SELLER_SUMMARY (
+	SELLER BIGINT NOT NULL PRIMARY KEY,
+	PROFIT DECIMAL(15,2) NOT NULL DEFAULT 0,
+	UNITS_SOLD BIGINT NOT NULL DEFAULT 0
+);
+
+-- Shared session records when bookstore.session.store=jdbc: see db/user-sessions.sql
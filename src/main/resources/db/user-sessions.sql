@@ -0,0 +1,10 @@
+-- Compact session records for bookstore.session.store=jdbc
+CREATE TABLE USER_SESSIONS (
+	ID VARCHAR(64) NOT NULL PRIMARY KEY,
+	USER_ID BIGINT NOT NULL,
+	USER_NAME VARCHAR(50) NOT NULL,
+	DASHBOARD_VERSION BIGINT NOT NULL,
+	LAST_ACCESS BIGINT NOT NULL
+);
+
+CREATE INDEX IDX_USER_SESSIONS_LAST_ACCESS ON USER_SESSIONS (LAST_ACCESS);
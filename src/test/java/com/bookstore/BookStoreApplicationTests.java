@@ -1,13 +1,118 @@
 package com.bookstore;
 
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.bookstore.configs.ApiTokenService;
+import com.bookstore.configs.SessionStoreSecurityContextRepository;
 
-@SpringBootTest
+import jakarta.servlet.http.Cookie;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:app;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver", "spring.datasource.username=sa",
+		"spring.datasource.password=", "spring.sql.init.mode=always",
+		"spring.sql.init.schema-locations=classpath:db/test-schema.sql", "bookstore.api.token.secret=test-secret" })
+@AutoConfigureMockMvc
 class BookStoreApplicationTests {
 
+	private static final String READER = "reader";
+	private static final String SELLER = "seller";
+	private static final String PASSWORD = "Secret123";
+	private static final int BOOKS_PER_USER = 5;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private ApiTokenService apiTokenService;
+
+	@BeforeEach
+	void setUp() {
+		// Seeded once per context, so cached lookups stay valid between tests
+		if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM USERS", Integer.class) > 0) {
+			return;
+		}
+		for (var name : new String[] { READER, SELLER }) {
+			jdbcTemplate.update("INSERT INTO USERS (NAME, PASSWORD) VALUES (?, ?)", name, passwordEncoder.encode(PASSWORD));
+			for (int i = 0; i < BOOKS_PER_USER; i++) {
+				jdbcTemplate.update("INSERT INTO BOOKS (NAME, AUTHOR, PUBLISH_DATE, DESCRIPTION, PRICE, QUANTITY, OWNER)"
+						+ " VALUES (?, 'Author', CURRENT_TIMESTAMP, 'Description', 10, 3, ?)", name + " book " + i, userId(name));
+			}
+		}
+	}
+
+	private long userId(String name) {
+		return jdbcTemplate.queryForObject("SELECT ID FROM USERS WHERE NAME = ?", Long.class, name);
+	}
+
+	/**
+	 * Log in through the form the way a browser does
+	 * @return session cookie
+	 * @throws Exception error
+	 */
+	private Cookie login() throws Exception {
+		var response = mockMvc.perform(post("/login").param("username", READER).param("password", PASSWORD))
+				.andExpect(status().is3xxRedirection()).andReturn().getResponse();
+		var cookie = response.getCookie(SessionStoreSecurityContextRepository.COOKIE_NAME);
+		assertNotNull(cookie);
+		mockMvc.perform(get("/login-success").cookie(cookie)).andExpect(status().is3xxRedirection());
+		return cookie;
+	}
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void anonymousPagesRunNoQueries() throws Exception {
+		QueryBudget.assertAtMost(0, () -> mockMvc.perform(get("/")).andExpect(status().isOk()));
+		QueryBudget.assertAtMost(0, () -> mockMvc.perform(get("/about")).andExpect(status().isOk()));
+		QueryBudget.assertAtMost(0, () -> mockMvc.perform(get("/login")).andExpect(status().isOk()));
+	}
+
+	@Test
+	void apiWithoutTokenRunsNoQueries() throws Exception {
+		QueryBudget.assertAtMost(0,
+				() -> mockMvc.perform(get("/api/bookservice/allbooks")).andExpect(status().isUnauthorized()));
+	}
+
+	@Test
+	void buyBooksPageRunsUserLookupAndOneListingQuery() throws Exception {
+		var cookie = login();
+		QueryBudget.assertAtMost(2,
+				() -> mockMvc.perform(get("/books/buybooks").cookie(cookie)).andExpect(status().isOk()));
+	}
+
+	@Test
+	void dashboardRunsUserLookupAndOneSalesQuery() throws Exception {
+		var cookie = login();
+		QueryBudget.assertAtMost(2,
+				() -> mockMvc.perform(get("/dashboard").cookie(cookie)).andExpect(status().isOk()));
+	}
+
+	@Test
+	void apiWithTokenRunsAccountCheckAndOneListingQuery() throws Exception {
+		var token = apiTokenService.issue(userId(READER), READER);
+		QueryBudget.assertAtMost(2, () -> mockMvc.perform(get("/api/bookservice/allbooks")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)).andExpect(status().isOk()));
+	}
 }
@@ -0,0 +1,43 @@
+package com.bookstore;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import com.bookstore.configs.SqlStatementCounter;
+
+/**
+ * Test helper that fails when a call runs more SQL statements than it declares.
+ * Wrap a MockMvc request in it to gate an endpoint on its query count.
+ */
+public final class QueryBudget {
+
+	/**
+	 * Code under measurement
+	 */
+	@FunctionalInterface
+	public interface Call {
+		/**
+		 * Run the call
+		 * @throws Exception error
+		 */
+		void run() throws Exception;
+	}
+
+	private QueryBudget() {
+	}
+
+	/**
+	 * Run a call and fail if it ran more than the budgeted statements
+	 * @param budget allowed statements
+	 * @param call call
+	 * @throws Exception error of the call
+	 */
+	public static void assertAtMost(int budget, Call call) throws Exception {
+		try (var scope = SqlStatementCounter.open()) {
+			call.run();
+			if (scope.getStatements() > budget) {
+				fail("Expected at most " + budget + " SQL statements but ran " + scope.getStatements()
+						+ ". Repeated: " + scope.getRepeatedStatements(2));
+			}
+		}
+	}
+}
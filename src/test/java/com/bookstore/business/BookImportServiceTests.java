@@ -0,0 +1,128 @@
+package com.bookstore.business;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bookstore.business.BookImportInterface.Format;
+import com.bookstore.data.BookDataService;
+import com.bookstore.data.entity.BookEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceTests {
+
+	@Mock
+	private BookDataService bookData;
+
+	@InjectMocks
+	private BookImportService importService;
+
+	private final List<BookEntity> inserted = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(importService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+		ReflectionTestUtils.setField(importService, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(importService, "batchSize", 2);
+	}
+
+	private void insertAll() {
+		when(bookData.createBatch(anyList())).thenAnswer(inv -> {
+			List<BookEntity> batch = inv.getArgument(0);
+			inserted.addAll(batch);
+			return batch.size();
+		});
+	}
+
+	private ByteArrayInputStream file(String... lines) {
+		return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void csvImportsValidRowsInBatches() throws Exception {
+		insertAll();
+
+		var result = importService.importBooks(file(
+				"name,author,publishDate,description,price,quantity",
+				"First,Author,2020-01-02,\"Quoted, with \"\"comma\"\"\",10.50,3",
+				"Second,Author,2021-02-03,Plain,5,1",
+				"Third,Author,2022-03-04,Plain,7.25,2"), Format.CSV, 3);
+
+		assertEquals(3, result.getRowsRead());
+		assertEquals(3, result.getRowsImported());
+		assertEquals(0, result.getRowsFailed());
+		assertEquals("Quoted, with \"comma\"", inserted.get(0).getDescription());
+		assertEquals(10.5f, inserted.get(0).getPrice());
+		assertEquals(3L, inserted.get(2).getOwner());
+	}
+
+	@Test
+	void csvRejectsBadRows() throws Exception {
+		insertAll();
+
+		var result = importService.importBooks(file(
+				"name,author,publishDate,description,price,quantity",
+				"Good,Author,2020-01-02,Plain,10,3",
+				"No price,Author,2020-01-02,Plain,,3",
+				"No quantity,Author,2020-01-02,Plain,10,",
+				"Bad date,Author,2020-13-45,Plain,10,3",
+				",Author,2020-01-02,Plain,10,3"), Format.CSV, 3);
+
+		assertEquals(5, result.getRowsRead());
+		assertEquals(1, result.getRowsImported());
+		assertEquals(4, result.getRowsFailed());
+		assertEquals(4, result.getErrors().size());
+		assertTrue(result.getErrors().get(0).startsWith("Line 3: Price"));
+		assertTrue(result.getErrors().get(1).startsWith("Line 4: Quantity"));
+	}
+
+	@Test
+	void ndjsonRejectsMissingFieldsAndBadJson() throws Exception {
+		insertAll();
+
+		var result = importService.importBooks(file(
+				"{\"name\":\"Good\",\"author\":\"A\",\"publishDate\":\"2020-01-02\",\"description\":\"D\",\"price\":4.5,\"quantity\":2}",
+				"{\"name\":\"No price\",\"author\":\"A\",\"publishDate\":\"2020-01-02\",\"description\":\"D\",\"quantity\":2}",
+				"{\"name\":\"Null quantity\",\"author\":\"A\",\"publishDate\":\"2020-01-02\",\"description\":\"D\",\"price\":1,\"quantity\":null}",
+				"{not json",
+				"[1, 2]"), Format.NDJSON, 3);
+
+		assertEquals(5, result.getRowsRead());
+		assertEquals(1, result.getRowsImported());
+		assertEquals(4, result.getRowsFailed());
+		assertEquals("Good", inserted.get(0).getName());
+	}
+
+	@Test
+	void partialBatchFailureCountsMissingRows() throws Exception {
+		// Driver reported only one of the two rows of the first batch as inserted
+		when(bookData.createBatch(anyList())).thenReturn(1, 1);
+
+		var result = importService.importBooks(file(
+				"name,author,publishDate,description,price,quantity",
+				"One,Author,2020-01-02,Plain,1,1",
+				"Two,Author,2020-01-02,Plain,1,1",
+				"Three,Author,2020-01-02,Plain,1,1"), Format.CSV, 3);
+
+		assertEquals(3, result.getRowsRead());
+		assertEquals(2, result.getRowsImported());
+		assertEquals(1, result.getRowsFailed());
+	}
+}
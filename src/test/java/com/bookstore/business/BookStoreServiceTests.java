@@ -0,0 +1,83 @@
+package com.bookstore.business;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.bookstore.data.BookDataService;
+import com.bookstore.data.UserDataService;
+import com.bookstore.data.entity.BookEntity;
+import com.bookstore.models.BookModel;
+
+@ExtendWith(MockitoExtension.class)
+class BookStoreServiceTests {
+
+	@Mock
+	private BookDataService bookData;
+
+	@Mock
+	private UserDataService userData;
+
+	@InjectMocks
+	private BookStoreService bookStore;
+
+	@BeforeEach
+	void setUp() {
+		when(userData.findIdByUserName("seller")).thenReturn(3L);
+	}
+
+	private BookModel book(String id) {
+		return new BookModel(id, "Name", "Author", new Date(), "Description", 10.5f, 2, "seller");
+	}
+
+	@Test
+	void addBookIsSingleWrite() {
+		when(bookData.create(any())).thenAnswer(inv -> {
+			BookEntity entity = inv.getArgument(0);
+			entity.setId(42);
+			return entity;
+		});
+
+		var model = book(null);
+		assertTrue(bookStore.addBook(model));
+		assertEquals("BK42", model.getBookId());
+
+		verify(bookData, times(1)).create(any());
+		verify(bookData, never()).update(any());
+		verify(userData, times(1)).findIdByUserName("seller");
+	}
+
+	@Test
+	void updateBookIsSingleWrite() {
+		when(bookData.update(any())).thenReturn(true);
+
+		assertTrue(bookStore.updateBook(book("BK42")));
+
+		verify(bookData, times(1)).update(any());
+		verify(bookData, never()).create(any());
+		verify(userData, times(1)).findIdByUserName("seller");
+	}
+
+	@Test
+	void deleteBookIsSingleWrite() {
+		when(bookData.delete(any())).thenReturn(true);
+
+		assertTrue(bookStore.deleteBook(book("BK42")));
+
+		verify(bookData, times(1)).delete(any());
+		verify(userData, times(1)).findIdByUserName("seller");
+	}
+}
@@ -0,0 +1,135 @@
+package com.bookstore.business;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jdbc.JdbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jdbc.repository.config.EnableJdbcRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bookstore.data.BookDataService;
+import com.bookstore.data.OrderDataService;
+import com.bookstore.data.UserDataService;
+
+@SpringBootTest(classes = OrderServiceTests.Config.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:orders;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver", "spring.datasource.username=sa",
+		"spring.datasource.password=", "spring.sql.init.mode=always",
+		"spring.sql.init.schema-locations=classpath:db/test-schema.sql" })
+class OrderServiceTests {
+
+	@Configuration
+	@ImportAutoConfiguration({ DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+			TransactionAutoConfiguration.class, JdbcTemplateAutoConfiguration.class, JdbcRepositoriesAutoConfiguration.class,
+			SqlInitializationAutoConfiguration.class })
+	@EnableJdbcRepositories(basePackages = "com.bookstore.data.repository")
+	@Import({ OrderService.class, OrderDataService.class, BookDataService.class, UserDataService.class })
+	static class Config {
+	}
+
+	@Autowired
+	private OrderInterface orderService;
+
+	@SpyBean
+	private OrderDataService orderData;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private long sellerId;
+	private long bookId;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM ORDERS");
+		jdbcTemplate.update("DELETE FROM SELLER_SUMMARY");
+		jdbcTemplate.update("DELETE FROM BOOKS");
+		jdbcTemplate.update("DELETE FROM USERS");
+		jdbcTemplate.update("INSERT INTO USERS (NAME, PASSWORD) VALUES ('seller', 'hash'), ('buyer', 'hash')");
+		sellerId = jdbcTemplate.queryForObject("SELECT ID FROM USERS WHERE NAME = 'seller'", Long.class);
+		jdbcTemplate.update("INSERT INTO BOOKS (NAME, AUTHOR, PUBLISH_DATE, DESCRIPTION, PRICE, QUANTITY, OWNER)"
+				+ " VALUES ('Name', 'Author', CURRENT_TIMESTAMP, 'Description', 10, 3, ?)", sellerId);
+		bookId = jdbcTemplate.queryForObject("SELECT ID FROM BOOKS", Long.class);
+	}
+
+	private int stock() {
+		return jdbcTemplate.queryForObject("SELECT QUANTITY FROM BOOKS WHERE ID = ?", Integer.class, bookId);
+	}
+
+	private int orders() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ORDERS", Integer.class);
+	}
+
+	private int summaries() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM SELLER_SUMMARY", Integer.class);
+	}
+
+	@Test
+	void ordersTakeStockAndAddUpSellerTotals() {
+		assertTrue(orderService.placeOrder("BK" + bookId, 2, "buyer"));
+		assertTrue(orderService.placeOrder("BK" + bookId, 1, "buyer"));
+
+		assertEquals(0, stock());
+		assertEquals(2, orders());
+		// First sale inserts the totals row, the next one updates it
+		assertEquals(1, summaries());
+		var summary = orderService.getSalesSummary("seller");
+		assertEquals(new BigDecimal("30.00"), summary.getProfit());
+		assertEquals(3, summary.getUnitsSold());
+	}
+
+	@Test
+	void orderOverStockIsRejected() {
+		assertFalse(orderService.placeOrder("BK" + bookId, 4, "buyer"));
+
+		assertEquals(3, stock());
+		assertEquals(0, orders());
+		assertEquals(0, summaries());
+	}
+
+	@Test
+	void lastUnitsAreSoldOnlyOnce() {
+		assertTrue(orderService.placeOrder("BK" + bookId, 3, "buyer"));
+		assertFalse(orderService.placeOrder("BK" + bookId, 1, "buyer"));
+
+		assertEquals(0, stock());
+		assertEquals(1, orders());
+	}
+
+	@Test
+	void failedTotalsRollBackStockAndOrder() {
+		doReturn(false).when(orderData).addSale(any());
+
+		assertFalse(orderService.placeOrder("BK" + bookId, 2, "buyer"));
+
+		assertEquals(3, stock());
+		assertEquals(0, orders());
+		assertEquals(0, summaries());
+	}
+
+	@Test
+	void sellerCanNotBuyOwnBook() {
+		assertFalse(orderService.placeOrder("BK" + bookId, 1, "seller"));
+
+		assertEquals(3, stock());
+		assertEquals(0, orders());
+	}
+}
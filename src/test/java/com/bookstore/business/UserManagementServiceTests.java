@@ -0,0 +1,77 @@
+package com.bookstore.business;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.bookstore.data.BookDataService;
+import com.bookstore.data.OrderDataService;
+import com.bookstore.data.UserDataService;
+import com.bookstore.data.entity.UserEntity;
+import com.bookstore.models.UserModel;
+
+@ExtendWith(MockitoExtension.class)
+class UserManagementServiceTests {
+
+	@Mock
+	private UserDataService userData;
+
+	@Mock
+	private BookDataService bookData;
+
+	@Mock
+	private OrderDataService orderData;
+
+	@InjectMocks
+	private UserManagementService userService;
+
+	@Test
+	void loginUsesSingleIndexedLookup() {
+		when(userData.findByUserName("reader")).thenReturn(
+				new UserEntity(7, "reader", "hash", "First", "Last", "reader@bookstore.com", "1234567890"));
+
+		var details = userService.loadUserByUsername("reader");
+
+		assertEquals("reader", details.getUsername());
+		// One query per login no matter how many users exist
+		verify(userData, times(1)).findByUserName(anyString());
+		verify(userData, never()).findAll();
+	}
+
+	@Test
+	void duplicateCheckUsesSingleIndexedLookup() {
+		when(userData.findByUserName("reader")).thenReturn(null);
+
+		assertEquals(false, userService.isDuplicateUser("reader"));
+		verify(userData, times(1)).findByUserName(anyString());
+		verify(userData, never()).findAll();
+	}
+
+	@Test
+	void accountDeletionRemovesBooksAndTotalsButKeepsOrders() {
+		var user = new UserEntity(7, "seller", "hash", "First", "Last", "seller@bookstore.com", "1234567890");
+		when(userData.findByUserName("seller")).thenReturn(user);
+		when(bookData.deleteAllByOwner(7)).thenReturn(true);
+		when(orderData.deleteSellerSummary(7)).thenReturn(true);
+		when(userData.delete(user)).thenReturn(true);
+
+		var model = new UserModel();
+		model.setUserName("seller");
+		assertTrue(userService.deleteUserAccount(model));
+
+		verify(bookData, times(1)).deleteAllByOwner(7);
+		verify(orderData, times(1)).deleteSellerSummary(7);
+		verify(orderData, never()).delete(any());
+	}
+}
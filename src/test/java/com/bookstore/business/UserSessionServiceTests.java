@@ -0,0 +1,215 @@
+package com.bookstore.business;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.bookstore.configs.CacheConfiguration;
+import com.bookstore.configs.SessionStoreSecurityContextRepository;
+import com.bookstore.data.SessionStoreInterface;
+import com.bookstore.data.entity.SessionEntity;
+import com.bookstore.models.BookModel;
+import com.bookstore.models.DashboardModel;
+import com.bookstore.models.SalesSummaryModel;
+
+@ExtendWith(MockitoExtension.class)
+class UserSessionServiceTests {
+
+	@Mock
+	private BookStoreInterface bookStore;
+
+	@Mock
+	private OrderInterface orderService;
+
+	@Mock
+	private SessionStoreInterface sessionStore;
+
+	@InjectMocks
+	private UserSessionService userSession;
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfiguration.DASHBOARDS);
+
+	private final ConcurrentHashMap<String, Long> versions = new ConcurrentHashMap<>();
+
+	private MockHttpServletRequest request;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(userSession, "cacheManager", cacheManager);
+		// The store hands out the next version of each session
+		lenient().when(sessionStore.nextDashboardVersion(anyString()))
+				.thenAnswer(invocation -> versions.merge(invocation.getArgument(0), 1L, Long::sum));
+		request = new MockHttpServletRequest();
+		request.setAttribute(SessionStoreSecurityContextRepository.SESSION_ATTRIBUTE,
+				new SessionEntity("token", 3, "seller", 0, System.currentTimeMillis()));
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+		userSession.shutdown();
+	}
+
+	@Test
+	void loginBootstrapRunsOnlyTheDashboardQuery() {
+		var books = List.of(new BookModel());
+		when(bookStore.getFirstBooksForUser(3L, "seller", 5)).thenReturn(books);
+		when(orderService.getSalesSummary("seller")).thenReturn(new SalesSummaryModel(BigDecimal.ZERO, 0));
+
+		userSession.setCurrentUser("seller");
+		var dashboard = userSession.getUserDashboard();
+
+		// The user id comes from the session record, so no user lookup or session write happens
+		assertSame(books, dashboard.getBooksOwned());
+		verify(bookStore, times(1)).getFirstBooksForUser(3L, "seller", 5);
+		verify(bookStore, never()).getFirstBooksForUser(anyString(), anyInt());
+		verifyNoMoreInteractions(bookStore, sessionStore);
+	}
+
+	@Test
+	void sessionsOfOneUserKeepTheirOwnDashboards() {
+		var first = List.of(new BookModel());
+		var second = List.of(new BookModel(), new BookModel());
+		when(bookStore.getFirstBooksForUser(3L, "seller", 5)).thenReturn(first, second);
+		when(orderService.getSalesSummary("seller")).thenReturn(new SalesSummaryModel(BigDecimal.ZERO, 0));
+
+		// Both sessions start at version 0, the second one has already been rebuilt
+		userSession.setCurrentUser("seller");
+		request.setAttribute(SessionStoreSecurityContextRepository.SESSION_ATTRIBUTE,
+				new SessionEntity("other", 3, "seller", 0, System.currentTimeMillis()));
+		userSession.setCurrentUser("seller");
+		assertSame(second, userSession.getUserDashboard().getBooksOwned());
+
+		request.setAttribute(SessionStoreSecurityContextRepository.SESSION_ATTRIBUTE,
+				new SessionEntity("token", 3, "seller", 0, System.currentTimeMillis()));
+		assertSame(first, userSession.getUserDashboard().getBooksOwned());
+	}
+
+	@Test
+	void salesTotalsAreNotWrittenToTheCachedDashboard() {
+		when(bookStore.getFirstBooksForUser(3L, "seller", 5)).thenReturn(List.of(new BookModel()));
+		when(orderService.getSalesSummary("seller")).thenReturn(new SalesSummaryModel(new BigDecimal("25.00"), 2));
+
+		userSession.setCurrentUser("seller");
+		var dashboard = userSession.getUserDashboard();
+
+		assertEquals(new BigDecimal("25.00"), dashboard.getProfit());
+		var entry = cacheManager.getCache(CacheConfiguration.DASHBOARDS).get("3:token:0", DashboardModel.class);
+		assertEquals(BigDecimal.ZERO, entry.getProfit());
+		assertEquals(0, entry.getUnitsSold());
+	}
+
+	@Test
+	void rebuildsOfOneSessionAreMerged() throws Exception {
+		var started = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		var books = List.of(new BookModel());
+		when(bookStore.getFirstBooksForUser(3L, "seller", 5)).thenAnswer(invocation -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return books;
+		});
+		when(orderService.getSalesSummary("seller")).thenReturn(new SalesSummaryModel(BigDecimal.ZERO, 0));
+
+		userSession.updateUserDashboard();
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		// Both land on the pending rebuild while version 1 is being built. Only the latest is built next
+		userSession.updateUserDashboard();
+		userSession.updateUserDashboard();
+		release.countDown();
+
+		assertSame(books, userSession.getUserDashboard().getBooksOwned());
+		verify(bookStore, times(2)).getFirstBooksForUser(3L, "seller", 5);
+	}
+
+	@Test
+	void sessionsOfOneUserAreRebuiltSeparately() {
+		var books = List.of(new BookModel());
+		when(bookStore.getFirstBooksForUser(3L, "seller", 5)).thenReturn(books);
+		when(orderService.getSalesSummary("seller")).thenReturn(new SalesSummaryModel(BigDecimal.ZERO, 0));
+		var first = (SessionEntity) request.getAttribute(SessionStoreSecurityContextRepository.SESSION_ATTRIBUTE);
+		var second = new SessionEntity("other", 3, "seller", 0, System.currentTimeMillis());
+
+		userSession.updateUserDashboard();
+		request.setAttribute(SessionStoreSecurityContextRepository.SESSION_ATTRIBUTE, second);
+		userSession.updateUserDashboard();
+
+		// Each view finds the rebuild of its own session version
+		assertSame(books, userSession.getUserDashboard().getBooksOwned());
+		request.setAttribute(SessionStoreSecurityContextRepository.SESSION_ATTRIBUTE, first);
+		assertSame(books, userSession.getUserDashboard().getBooksOwned());
+		verify(bookStore, times(2)).getFirstBooksForUser(3L, "seller", 5);
+	}
+
+	@Test
+	void viewBuildsItselfWhenRebuildIsLate() {
+		ReflectionTestUtils.setField(userSession, "refreshWait", Duration.ofMillis(50));
+		var release = new CountDownLatch(1);
+		var requestBuilds = new AtomicInteger();
+		var books = List.of(new BookModel());
+		when(bookStore.getFirstBooksForUser(3L, "seller", 5)).thenAnswer(invocation -> {
+			// Only the background rebuild is slow
+			if (Thread.currentThread().isVirtual()) {
+				release.await(5, TimeUnit.SECONDS);
+			} else {
+				requestBuilds.incrementAndGet();
+			}
+			return books;
+		});
+		when(orderService.getSalesSummary("seller")).thenReturn(new SalesSummaryModel(BigDecimal.ZERO, 0));
+
+		userSession.updateUserDashboard();
+		var dashboard = userSession.getUserDashboard();
+		release.countDown();
+
+		assertSame(books, dashboard.getBooksOwned());
+		assertEquals(1, requestBuilds.get());
+	}
+
+	@Test
+	void rebuildUsesTheVersionGivenByTheStore() {
+		var books = List.of(new BookModel());
+		when(bookStore.getFirstBooksForUser(3L, "seller", 5)).thenReturn(books);
+		when(orderService.getSalesSummary("seller")).thenReturn(new SalesSummaryModel(BigDecimal.ZERO, 0));
+		// Another node has already moved the session on
+		versions.put("token", 4L);
+
+		userSession.updateUserDashboard();
+
+		assertSame(books, userSession.getUserDashboard().getBooksOwned());
+		var session = (SessionEntity) request.getAttribute(SessionStoreSecurityContextRepository.SESSION_ATTRIBUTE);
+		assertEquals(5, session.getDashboardVersion());
+		verify(sessionStore, never()).save(any());
+	}
+}
@@ -0,0 +1,64 @@
+package com.bookstore.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bookstore.business.BookStoreUser;
+import com.bookstore.data.UserDataService;
+
+class ApiTokenServiceTests {
+
+	private final UserDataService userData = mock(UserDataService.class);
+
+	private final ApiTokenService tokens = new ApiTokenService("test-secret", Duration.ofMinutes(5), userData);
+
+	@BeforeEach
+	void setUp() {
+		when(userData.findIdByUserName("seller")).thenReturn(3L);
+	}
+
+	@Test
+	void verifiesIssuedToken() {
+		var authentication = tokens.verify(tokens.issue(3, "seller"));
+
+		assertEquals("seller", authentication.getName());
+		assertEquals(3, ((BookStoreUser) authentication.getPrincipal()).getUserId());
+	}
+
+	@Test
+	void rejectsForgedAndExpiredTokens() {
+		var token = tokens.issue(3, "seller");
+		var otherSecret = new ApiTokenService("other-secret", Duration.ofMinutes(5), userData);
+		var expired = new ApiTokenService("test-secret", Duration.ofMinutes(-1), userData);
+
+		assertNull(otherSecret.verify(token));
+		assertNull(tokens.verify(expired.issue(3, "seller")));
+		assertNull(tokens.verify(token.substring(0, token.length() - 2)));
+		assertNull(tokens.verify("not-a-token"));
+	}
+
+	@Test
+	void rejectsTokensOfDeletedOrReusedAccounts() {
+		var token = tokens.issue(3, "seller");
+
+		// Account deleted, then the name signed up again under a new id
+		when(userData.findIdByUserName("seller")).thenReturn(null, 8L);
+
+		assertNull(tokens.verify(token));
+		assertNull(tokens.verify(token));
+	}
+
+	@Test
+	void refusesToStartWithoutSecret() {
+		assertThrows(IllegalStateException.class, () -> new ApiTokenService("", Duration.ofMinutes(5), userData));
+		assertThrows(IllegalStateException.class, () -> new ApiTokenService(null, Duration.ofMinutes(5), userData));
+	}
+}
@@ -0,0 +1,78 @@
+package com.bookstore.configs;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class BoundedPasswordEncoderTests {
+
+	private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 1, 10);
+
+	@AfterEach
+	void tearDown() {
+		encoder.shutdown();
+	}
+
+	@Test
+	void matchesOwnHashes() {
+		var hash = encoder.encode("secret");
+
+		assertTrue(encoder.matches("secret", hash));
+		assertFalse(encoder.matches("other", hash));
+		assertFalse(encoder.upgradeEncoding(hash));
+	}
+
+	@Test
+	void upgradesHashesWithAnotherWorkFactor() {
+		var older = new BCryptPasswordEncoder(4).encode("secret");
+		var newer = new BCryptPasswordEncoder(6).encode("secret");
+
+		// Hashes from any other factor still log in, and are flagged for rehash
+		assertTrue(encoder.matches("secret", older));
+		assertTrue(encoder.upgradeEncoding(older));
+		assertTrue(encoder.upgradeEncoding(newer));
+	}
+
+	@Test
+	void fullQueueFailsLoginInsteadOfErroring() throws Exception {
+		var busy = new BoundedPasswordEncoder(4, 1, 1);
+		var release = new CountDownLatch(1);
+		try {
+			var hash = busy.encode("secret");
+			// Occupy the only hashing thread and the only queue slot
+			busy.getExecutor().execute(() -> {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			busy.getExecutor().execute(() -> { });
+
+			assertThrows(AuthenticationServiceException.class, () -> busy.encode("secret"));
+
+			var provider = new DaoAuthenticationProvider();
+			provider.setPasswordEncoder(busy);
+			provider.setUserDetailsService(name -> User.withUsername(name).password(hash).roles("USER").build());
+			var manager = new ProviderManager(provider);
+			// An AuthenticationException goes to the form login failure handler, not to an error page
+			assertThrows(AuthenticationServiceException.class,
+					() -> manager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("reader", "secret")));
+		} finally {
+			release.countDown();
+			busy.shutdown();
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.bookstore.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class LoginThrottleTests {
+
+	private final LoginThrottle throttle = new LoginThrottle(3, Duration.ofHours(1), 5, Duration.ofHours(1),
+			Duration.ofMinutes(10), 1000);
+
+	@Test
+	void userBucketAllowsBurstThenRejects() {
+		for (int i = 0; i < 3; i++) {
+			assertTrue(throttle.tryAcquire("reader", "10.0.0." + i));
+		}
+
+		// Changing the case of the name does not give a fresh bucket
+		assertFalse(throttle.tryAcquire("READER", "10.0.0.9"));
+		assertTrue(throttle.tryAcquire("writer", "10.0.0.9"));
+		assertEquals(1, throttle.getRejectedByUser());
+	}
+
+	@Test
+	void addressBucketRejectsManyNames() {
+		for (int i = 0; i < 5; i++) {
+			assertTrue(throttle.tryAcquire("user" + i, "10.0.0.1"));
+		}
+
+		assertFalse(throttle.tryAcquire("user9", "10.0.0.1"));
+		assertEquals(1, throttle.getRejectedByAddress());
+		assertEquals(5, throttle.getAllowed());
+	}
+}
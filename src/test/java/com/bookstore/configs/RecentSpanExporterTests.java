@@ -0,0 +1,37 @@
+package com.bookstore.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+
+class RecentSpanExporterTests {
+
+	@Test
+	void keepsLatestSpansAndFiltersByTrace() {
+		var exporter = new RecentSpanExporter(3);
+		try (var provider = SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(exporter)).build()) {
+			var tracer = provider.get("test");
+			var root = tracer.spanBuilder("request").startSpan();
+			var parent = Context.current().with(root);
+			for (int i = 0; i < 3; i++) {
+				tracer.spanBuilder("sql " + i).setParent(parent).startSpan().end();
+			}
+			root.end();
+			tracer.spanBuilder("other").startSpan().end();
+
+			// The first SQL span was dropped to stay within capacity
+			var all = exporter.getSpans(null);
+			assertEquals(3, all.size());
+			assertEquals("sql 1", all.get(0).getName());
+			assertEquals("other", all.get(2).getName());
+
+			var trace = exporter.getSpans(root.getSpanContext().getTraceId());
+			assertEquals(2, trace.size());
+			assertEquals(root.getSpanContext().getSpanId(), trace.get(0).getParentSpanId());
+		}
+	}
+}
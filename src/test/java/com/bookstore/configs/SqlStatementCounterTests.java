@@ -0,0 +1,53 @@
+package com.bookstore.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class SqlStatementCounterTests {
+	private static final String FIND = "SELECT USER_NAME FROM USER_SESSIONS WHERE ID = ?";
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+				.addScript("db/user-sessions.sql").build();
+		jdbcTemplate = new JdbcTemplate(new StatementCountingDataSource(database));
+		jdbcTemplate.update("INSERT INTO USER_SESSIONS VALUES ('a', 1, 'reader', 0, 0)");
+		jdbcTemplate.update("INSERT INTO USER_SESSIONS VALUES ('b', 2, 'seller', 0, 0)");
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	void countsStatementsRowsAndRepeats() {
+		try (var request = SqlStatementCounter.open()) {
+			jdbcTemplate.queryForList("SELECT ID FROM USER_SESSIONS");
+			try (var inner = SqlStatementCounter.open()) {
+				// One lookup per row is the N+1 pattern
+				for (var id : new String[] { "a", "b", "a" }) {
+					jdbcTemplate.queryForObject(FIND, String.class, id);
+				}
+				assertEquals(3, inner.getStatements());
+			}
+
+			assertEquals(4, request.getStatements());
+			assertEquals(5, request.getRows());
+			assertEquals(Map.of(FIND, 3), request.getRepeatedStatements(3));
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.bookstore.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.bookstore.business.BookStoreInterface;
+import com.bookstore.business.OrderInterface;
+import com.bookstore.business.UserSessionService;
+import com.bookstore.configs.ApiTokenService;
+import com.bookstore.configs.CacheConfiguration;
+import com.bookstore.configs.LoginThrottle;
+import com.bookstore.configs.SecurityConfiguration;
+import com.bookstore.configs.SessionStoreSecurityContextRepository;
+import com.bookstore.data.SessionStoreInterface;
+import com.bookstore.data.UserDataService;
+
+import jakarta.servlet.Filter;
+
+@SpringBootTest(classes = HomeControllerTests.Config.class, properties = "bookstore.api.token.secret=test-secret")
+class HomeControllerTests {
+
+	@Configuration
+	@EnableWebMvc
+	@Import({ HomeController.class, SecurityConfiguration.class, SessionStoreSecurityContextRepository.class, LoginThrottle.class,
+			ApiTokenService.class,
+			UserSessionService.class })
+	static class Config {
+		@Bean
+		UserDetailsService userDetailsService() {
+			return mock(UserDetailsService.class);
+		}
+
+		@Bean
+		SessionStoreInterface sessionStore() {
+			return mock(SessionStoreInterface.class);
+		}
+
+		@Bean
+		UserDataService userDataService() {
+			return mock(UserDataService.class);
+		}
+
+		@Bean
+		BookStoreInterface bookStore() {
+			return mock(BookStoreInterface.class);
+		}
+
+		@Bean
+		OrderInterface orderService() {
+			return mock(OrderInterface.class);
+		}
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager(CacheConfiguration.DASHBOARDS);
+		}
+	}
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	@Qualifier("springSecurityFilterChain")
+	private Filter securityFilter;
+
+	@Autowired
+	private SessionStoreInterface sessionStore;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(securityFilter).build();
+	}
+
+	@Test
+	void homePageCreatesNoSession() throws Exception {
+		var result = mockMvc.perform(get("/")).andExpect(status().isOk()).andReturn();
+
+		assertNull(result.getRequest().getSession(false));
+		verifyNoInteractions(sessionStore);
+	}
+
+	@Test
+	void aboutPageCreatesNoSession() throws Exception {
+		var result = mockMvc.perform(get("/about")).andExpect(status().isOk()).andReturn();
+
+		assertNull(result.getRequest().getSession(false));
+		verifyNoInteractions(sessionStore);
+	}
+}
@@ -0,0 +1,180 @@
+package com.bookstore.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bookstore.configs.CacheConfiguration;
+import com.bookstore.data.entity.BookEntity;
+import com.bookstore.data.repository.BookRepository;
+
+@SpringBootTest(classes = BookDataServiceCacheTests.Config.class)
+class BookDataServiceCacheTests {
+
+	@Configuration
+	@Import({ CacheConfiguration.class, BookDataService.class })
+	static class Config {
+		@Bean
+		BookRepository bookRepository() {
+			return mock(BookRepository.class);
+		}
+
+		@Bean
+		JdbcTemplate jdbcTemplate() {
+			return mock(JdbcTemplate.class);
+		}
+
+		@Bean(destroyMethod = "shutdown")
+		DataSource dataSource() {
+			return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		}
+
+		@Bean
+		PlatformTransactionManager transactionManager(DataSource dataSource) {
+			return new DataSourceTransactionManager(dataSource);
+		}
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager(CacheConfiguration.BOOKS, CacheConfiguration.BOOKS_BY_OWNER,
+					CacheConfiguration.BOOK_LIST, CacheConfiguration.BOOK_LISTINGS);
+		}
+	}
+
+	@Autowired
+	private BookDataService bookData;
+
+	@Autowired
+	private BookRepository bookRepo;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void setUp() {
+		reset(bookRepo);
+		cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+	}
+
+	private BookEntity book() {
+		return new BookEntity(7, "BK7", "Name", "Author", new Date(), "Description", 10.5f, 2, 3);
+	}
+
+	private void stubUpdate() {
+		when(bookRepo.updateForOwner(anyLong(), anyLong(), anyString(), anyString(), any(), anyString(), anyFloat(), anyInt()))
+				.thenReturn(1);
+	}
+
+	@Test
+	void ownerBooksAreReadOnceUntilUpdated() {
+		when(bookRepo.findByOwner(3)).thenReturn(List.of(book()));
+		stubUpdate();
+
+		bookData.findByOwner(3);
+		bookData.findByOwner(3);
+		verify(bookRepo, times(1)).findByOwner(3);
+
+		assertTrue(bookData.update(book()));
+		bookData.findByOwner(3);
+		verify(bookRepo, times(2)).findByOwner(3);
+	}
+
+	@Test
+	void failedReadIsNotCached() {
+		when(bookRepo.findByOwner(3)).thenThrow(new IllegalStateException("database down")).thenReturn(List.of(book()));
+
+		assertNull(bookData.findByOwner(3));
+		assertEquals(1, bookData.findByOwner(3).size());
+		verify(bookRepo, times(2)).findByOwner(3);
+	}
+
+	@Test
+	void evictionWaitsForCommit() {
+		when(bookRepo.findByOwner(3)).thenReturn(List.of(book()));
+		stubUpdate();
+		bookData.findByOwner(3);
+
+		var cache = cacheManager.getCache(CacheConfiguration.BOOKS_BY_OWNER);
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			assertTrue(bookData.update(book()));
+			// Readers still see the committed rows until the update commits
+			assertNotNull(cache.get(3L));
+		});
+		assertNull(cache.get(3L));
+	}
+
+	@Test
+	void rolledBackUpdateKeepsCache() {
+		when(bookRepo.findByOwner(3)).thenReturn(List.of(book()));
+		stubUpdate();
+		bookData.findByOwner(3);
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			bookData.update(book());
+			status.setRollbackOnly();
+		});
+		assertNotNull(cacheManager.getCache(CacheConfiguration.BOOKS_BY_OWNER).get(3L));
+	}
+
+	@Test
+	void deletedOwnerBooksAreEvictedWhenTheAccountDeleteCommits() {
+		when(bookRepo.findByOwner(3)).thenReturn(List.of(book()));
+		when(bookRepo.deleteByOwner(3, 5000)).thenReturn(1);
+		bookData.findByOwner(3);
+
+		var cache = cacheManager.getCache(CacheConfiguration.BOOKS_BY_OWNER);
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			assertTrue(bookData.deleteAllByOwner(3));
+			assertNotNull(cache.get(3L));
+		});
+		assertNull(cache.get(3L));
+	}
+
+	@Test
+	void rolledBackAccountDeleteKeepsOwnerBooks() {
+		when(bookRepo.findByOwner(3)).thenReturn(List.of(book()));
+		when(bookRepo.deleteByOwner(3, 5000)).thenReturn(1);
+		bookData.findByOwner(3);
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			bookData.deleteAllByOwner(3);
+			status.setRollbackOnly();
+		});
+		assertNotNull(cacheManager.getCache(CacheConfiguration.BOOKS_BY_OWNER).get(3L));
+	}
+}
@@ -0,0 +1,95 @@
+package com.bookstore.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bookstore.data.entity.SessionEntity;
+
+class JdbcSessionStoreTests {
+
+	private EmbeddedDatabase database;
+
+	private JdbcSessionStore store;
+
+	@BeforeEach
+	void setUp() {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+				.addScript("db/user-sessions.sql").build();
+		store = new JdbcSessionStore();
+		ReflectionTestUtils.setField(store, "jdbcTemplate", new JdbcTemplate(database));
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	void saveInsertsThenUpdatesSession() {
+		assertTrue(store.save(new SessionEntity("token", 3, "seller", 0, 1000)));
+
+		var session = store.find("token");
+		session.setDashboardVersion(1);
+		session.setLastAccess(2000);
+		assertTrue(store.save(session));
+
+		var saved = store.find("token");
+		assertEquals(3, saved.getUserId());
+		assertEquals("seller", saved.getUserName());
+		assertEquals(1, saved.getDashboardVersion());
+		assertEquals(2000, saved.getLastAccess());
+	}
+
+	@Test
+	void deleteRemovesSession() {
+		store.save(new SessionEntity("token", 3, "seller", 0, 1000));
+
+		assertTrue(store.delete("token"));
+
+		assertNull(store.find("token"));
+	}
+
+	@Test
+	void deleteExpiredKeepsRecentSessions() {
+		store.save(new SessionEntity("old", 3, "seller", 0, 1000));
+		store.save(new SessionEntity("recent", 4, "buyer", 0, 5000));
+
+		assertEquals(1, store.deleteExpired(2000));
+
+		assertNull(store.find("old"));
+		assertEquals("buyer", store.find("recent").getUserName());
+	}
+
+	@Test
+	void touchOnlyMovesLastAccessForward() {
+		store.save(new SessionEntity("token", 3, "seller", 0, 1000));
+		assertEquals(1, store.nextDashboardVersion("token"));
+
+		assertTrue(store.touch("token", 3000));
+		assertTrue(store.touch("token", 2000));
+
+		var saved = store.find("token");
+		assertEquals(1, saved.getDashboardVersion());
+		assertEquals(3000, saved.getLastAccess());
+	}
+
+	@Test
+	void nextDashboardVersionIncrementsStoredVersion() {
+		store.save(new SessionEntity("token", 3, "seller", 4, 1000));
+
+		assertEquals(5, store.nextDashboardVersion("token"));
+		assertEquals(6, store.nextDashboardVersion("token"));
+		assertEquals(6, store.find("token").getDashboardVersion());
+		assertEquals(-1, store.nextDashboardVersion("missing"));
+	}
+}
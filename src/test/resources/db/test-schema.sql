@@ -0,0 +1,49 @@
+-- Application tables for tests on H2 in MySQL mode. Production tables are created outside the
+-- application, with the changes in db/schema-updates.sql.
+CREATE TABLE USERS (
+	ID BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+	NAME VARCHAR(50) NOT NULL,
+	PASSWORD VARCHAR(100) NOT NULL,
+	FIRST_NAME VARCHAR(50),
+	LAST_NAME VARCHAR(50),
+	EMAIL VARCHAR(100),
+	PHONE VARCHAR(20)
+);
+CREATE UNIQUE INDEX UX_USERS_NAME ON USERS (NAME);
+
+CREATE TABLE BOOKS (
+	ID BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+	BOOK_ID VARCHAR(20),
+	NAME VARCHAR(50) NOT NULL,
+	AUTHOR VARCHAR(50) NOT NULL,
+	PUBLISH_DATE DATETIME,
+	DESCRIPTION VARCHAR(2000),
+	PRICE FLOAT NOT NULL,
+	QUANTITY INT NOT NULL,
+	OWNER BIGINT NOT NULL
+);
+CREATE INDEX IDX_BOOKS_OWNER ON BOOKS (OWNER);
+
+CREATE TABLE ORDERS (
+	ID BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+	BOOK BIGINT NOT NULL,
+	SELLER BIGINT NOT NULL,
+	BUYER BIGINT NOT NULL,
+	QUANTITY INT NOT NULL,
+	PRICE DECIMAL(15,2) NOT NULL,
+	ORDER_DATE DATETIME NOT NULL
+);
+
+CREATE TABLE SELLER_SUMMARY (
+	SELLER BIGINT NOT NULL PRIMARY KEY,
+	PROFIT DECIMAL(15,2) NOT NULL DEFAULT 0,
+	UNITS_SOLD BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE USER_SESSIONS (
+	ID VARCHAR(64) NOT NULL PRIMARY KEY,
+	USER_ID BIGINT NOT NULL,
+	USER_NAME VARCHAR(50) NOT NULL,
+	DASHBOARD_VERSION BIGINT NOT NULL,
+	LAST_ACCESS BIGINT NOT NULL
+);